@@ -0,0 +1,63 @@
+package hr.algebra.azul.ai;
+
+import hr.algebra.azul.simulation.MovePolicy;
+import hr.algebra.azul.simulation.Tournament;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Named bot strategies for tournaments and load tests. Each supplier builds a fresh bot for one game;
+// the search bots run single-threaded on a fixed iteration budget so results are reproducible and
+// the tournament's own parallelism fills the cores.
+public final class Bots {
+    private static final Map<String, Supplier<? extends MovePolicy>> REGISTRY = new LinkedHashMap<>();
+
+    static {
+        REGISTRY.put("random", MovePolicy::random);
+        REGISTRY.put("heuristic", HeuristicBot::new);
+        REGISTRY.put("mcts-200", () -> new MctsBot(Duration.ofSeconds(10), 200, 1, 1L));
+        REGISTRY.put("mcts-1000", () -> new MctsBot(Duration.ofSeconds(10), 1000, 1, 1L));
+        REGISTRY.put("expectimax-2", () -> new ExpectimaxSearch(2, Duration.ofSeconds(10), 8));
+    }
+
+    private Bots() {
+    }
+
+    public static Map<String, Supplier<? extends MovePolicy>> registry() {
+        return Map.copyOf(REGISTRY);
+    }
+
+    public static Supplier<? extends MovePolicy> named(String name) {
+        Supplier<? extends MovePolicy> bot = REGISTRY.get(name);
+        if (bot == null) {
+            throw new IllegalArgumentException("Unknown bot: " + name + ", expected one of " + REGISTRY.keySet());
+        }
+        return bot;
+    }
+
+    // Usage: Bots [ROUND_ROBIN|SWISS] [games per match] [rounds] [threads] [bot...]
+    public static void main(String[] args) {
+        Tournament.Builder builder = new Tournament.Builder();
+        if (args.length > 0) {
+            builder.setFormat(Tournament.Format.valueOf(args[0]));
+        }
+        if (args.length > 1) {
+            builder.setGamesPerMatch(Integer.parseInt(args[1]));
+        }
+        if (args.length > 2) {
+            builder.setRounds(Integer.parseInt(args[2]));
+        }
+        if (args.length > 3) {
+            builder.setParallelism(Integer.parseInt(args[3]));
+        }
+        if (args.length > 4) {
+            for (int i = 4; i < args.length; i++) {
+                builder.addEntrant(args[i], named(args[i]));
+            }
+        } else {
+            REGISTRY.forEach(builder::addEntrant);
+        }
+        System.out.print(builder.build().run());
+    }
+}
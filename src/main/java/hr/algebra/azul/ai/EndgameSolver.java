@@ -0,0 +1,174 @@
+package hr.algebra.azul.ai;
+
+import hr.algebra.azul.model.CanonicalPosition;
+import hr.algebra.azul.model.Game;
+import hr.algebra.azul.model.GameSnapshot;
+import hr.algebra.azul.model.MoveGenerator;
+import hr.algebra.azul.model.Player;
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+// Exact alpha-beta search to the end of the current round. Once a wall row is one tile short the
+// game can end with this round, and the remaining tree is small enough to solve. The value is the
+// solving player's margin over the best opponent; with more than two players the opponents are
+// assumed to cooperate against them (paranoid search), which keeps alpha-beta sound. Leaves that
+// end the game use the final scores including Wall.calculateScore bonuses; a round that does not
+// end the game is scored with the bonuses the walls hold at that point.
+public class EndgameSolver {
+    private static final int MAX_DEPTH = 128;
+    private static final int INFINITY = 1_000_000;
+    private static final int DEADLINE_CHECK_MASK = 0x3FF;
+
+    private final TranspositionTable table;
+    private final int[][] moveBuffers = new int[MAX_DEPTH][MoveGenerator.MAX_MOVES];
+    private final int[][] orderKeys = new int[MAX_DEPTH][MoveGenerator.MAX_MOVES];
+    private Game game;
+    private int rootPlayer;
+    private long deadline;
+    private boolean aborted;
+    private long nodes;
+    private long interiorNodes;
+    private long cutoffs;
+    private long tableHits;
+
+    public EndgameSolver() {
+        this(20);
+    }
+
+    public EndgameSolver(int tableLog2Size) {
+        this.table = new TranspositionTable(tableLog2Size);
+    }
+
+    // solved is false when the budget ran out; move is then the best found by move ordering alone
+    public record Solution(int move, int value, boolean solved, long nodes, long cutoffs, long interiorNodes,
+                           long tableHits, long elapsedNanos) {
+        public double nodesPerSecond() {
+            return elapsedNanos == 0 ? 0 : nodes * 1e9 / elapsedNanos;
+        }
+
+        public double cutoffRate() {
+            return interiorNodes == 0 ? 0 : (double) cutoffs / interiorNodes;
+        }
+    }
+
+    // True when some player has a wall row one tile short of complete
+    public static boolean canEndThisRound(Game game) {
+        for (Player player : game.getPlayers()) {
+            for (int row = 0; row < 5; row++) {
+                if (player.getWall().getRowTileCount(row) == 4) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public Solution solve(Game position, Duration budget) {
+        long start = System.nanoTime();
+        game = GameSnapshot.of(position).toGame(new SplittableRandom(0));
+        rootPlayer = game.getCurrentPlayerIndex();
+        deadline = start + budget.toNanos();
+        aborted = false;
+        nodes = 0;
+        interiorNodes = 0;
+        cutoffs = 0;
+        tableHits = 0;
+        table.newSearch();
+
+        int[] moves = moveBuffers[0];
+        int count = orderedMoves(0, -1);
+        int bestMove = count == 0 ? -1 : moves[0];
+        int bestValue = -INFINITY;
+        int alpha = -INFINITY;
+        for (int i = 0; i < count && !aborted; i++) {
+            game.applyMove(moves[i]);
+            int value = search(1, alpha, INFINITY);
+            game.undoMove();
+            if (!aborted && value > bestValue) {
+                bestValue = value;
+                bestMove = moves[i];
+                alpha = Math.max(alpha, value);
+            }
+        }
+        game = null;
+        return new Solution(bestMove, bestValue, !aborted, nodes, cutoffs, interiorNodes, tableHits,
+                System.nanoTime() - start);
+    }
+
+    private int search(int depth, int alpha, int beta) {
+        nodes++;
+        if ((nodes & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() > deadline) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+        if (game.isGameEnded() || game.lastMoveEndedRound() || depth == MAX_DEPTH) {
+            return evaluate();
+        }
+
+        // Positions that differ only by factory order share an entry; its move is stored in canonical form
+        long key = CanonicalPosition.key(game);
+        int entry = table.probe(key);
+        int hintMove = -1;
+        if (entry >= 0) {
+            tableHits++;
+            int stored = table.value(entry);
+            int flag = table.flag(entry);
+            if (flag == TranspositionTable.EXACT
+                    || (flag == TranspositionTable.LOWER && stored >= beta)
+                    || (flag == TranspositionTable.UPPER && stored <= alpha)) {
+                return stored;
+            }
+            hintMove = CanonicalPosition.concreteMove(game, table.move(entry));
+        }
+
+        int count = orderedMoves(depth, hintMove);
+        if (count == 0) {
+            return evaluate();
+        }
+        interiorNodes++;
+        int[] moves = moveBuffers[depth];
+        boolean maximizing = game.getCurrentPlayerIndex() == rootPlayer;
+        int originalAlpha = alpha;
+        int originalBeta = beta;
+        int best = maximizing ? -INFINITY : INFINITY;
+        int bestMove = moves[0];
+
+        for (int i = 0; i < count; i++) {
+            game.applyMove(moves[i]);
+            int value = search(depth + 1, alpha, beta);
+            game.undoMove();
+            if (aborted) {
+                return 0;
+            }
+            if (maximizing ? value > best : value < best) {
+                best = value;
+                bestMove = moves[i];
+            }
+            if (maximizing) {
+                alpha = Math.max(alpha, value);
+            } else {
+                beta = Math.min(beta, value);
+            }
+            if (alpha >= beta) {
+                cutoffs++;
+                break;
+            }
+        }
+
+        int flag = best <= originalAlpha ? TranspositionTable.UPPER
+                : best >= originalBeta ? TranspositionTable.LOWER
+                : TranspositionTable.EXACT;
+        table.store(key, best, flag, CanonicalPosition.canonicalMove(game, bestMove));
+        return best;
+    }
+
+    private int evaluate() {
+        return Rollouts.margin(game, rootPlayer);
+    }
+
+    private int orderedMoves(int depth, int hintMove) {
+        return MoveOrdering.orderedMoves(game, moveBuffers[depth], orderKeys[depth], hintMove);
+    }
+}
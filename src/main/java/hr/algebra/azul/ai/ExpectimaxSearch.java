@@ -0,0 +1,201 @@
+package hr.algebra.azul.ai;
+
+import hr.algebra.azul.model.Game;
+import hr.algebra.azul.model.GameSnapshot;
+import hr.algebra.azul.model.MoveGenerator;
+import hr.algebra.azul.model.RefillDistribution;
+import hr.algebra.azul.simulation.MovePolicy;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Depth-limited search that can look past the end of a round. Player turns are searched with
+// paranoid alpha-beta like EndgameSolver; the refill after a round is a chance node whose value is
+// the weighted mean over RefillDistribution outcomes: every refill with its exact probability when
+// there are few, a fixed sample otherwise. Outcome lists are cached per bag and discard, so chance
+// nodes that share them cost one lookup. Deepening runs until the depth or time budget is reached,
+// or until the searching thread is interrupted.
+public class ExpectimaxSearch implements MovePolicy {
+    private static final int MAX_DEPTH = 32;
+    private static final double INFINITY = 1e9;
+    private static final int DEADLINE_CHECK_MASK = 0xFF;
+
+    private final int maxDepth;
+    private final Duration budget;
+    private final int outcomesPerChanceNode;
+    private final int[][] moveBuffers = new int[MAX_DEPTH + 1][MoveGenerator.MAX_MOVES];
+    private final int[][] orderKeys = new int[MAX_DEPTH + 1][MoveGenerator.MAX_MOVES];
+    private Game game;
+    private int rootPlayer;
+    private long deadline;
+    private boolean aborted;
+    private long nodes;
+    private long chanceNodes;
+    private long outcomes;
+
+    public ExpectimaxSearch(int maxDepth, Duration budget, int outcomesPerChanceNode) {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH || outcomesPerChanceNode < 1) {
+            throw new IllegalArgumentException("Depth must be between 1 and " + MAX_DEPTH + ", outcomes >= 1");
+        }
+        this.maxDepth = maxDepth;
+        this.budget = budget;
+        this.outcomesPerChanceNode = outcomesPerChanceNode;
+    }
+
+    // depth is the deepest iteration that finished; outcomes counts refills searched below chance nodes
+    public record Result(int move, double value, int depth, long nodes, long chanceNodes, long outcomes,
+                         long elapsedNanos) {
+    }
+
+    public record RankedMove(int move, double value) {
+    }
+
+    // Every root move with its value from the deepest completed iteration, best first
+    public record Ranking(List<RankedMove> moves, int depth, long nodes, long elapsedNanos) {
+    }
+
+    @Override
+    public int chooseMove(Game game, int[] moves, int count, SplittableRandom random) {
+        return count == 1 ? moves[0] : search(game).move();
+    }
+
+    public Result search(Game position) {
+        long start = begin(position);
+        int[] moves = moveBuffers[0];
+        int bestMove = -1;
+        double bestValue = -INFINITY;
+        int completedDepth = 0;
+        for (int depth = 1; depth <= maxDepth && !aborted; depth++) {
+            int count = MoveOrdering.orderedMoves(game, moves, orderKeys[0], bestMove);
+            if (count == 0) {
+                break;
+            }
+            if (bestMove == -1) {
+                // An aborted first iteration still has to return a legal move
+                bestMove = moves[0];
+            }
+            int iterationMove = moves[0];
+            double iterationValue = -INFINITY;
+            for (int i = 0; i < count && !aborted; i++) {
+                double value = child(moves[i], depth - 1, 1, iterationValue, INFINITY);
+                if (value > iterationValue) {
+                    iterationValue = value;
+                    iterationMove = moves[i];
+                }
+            }
+            if (!aborted) {
+                bestMove = iterationMove;
+                bestValue = iterationValue;
+                completedDepth = depth;
+            }
+        }
+        game = null;
+        return new Result(bestMove, bestValue, completedDepth, nodes, chanceNodes, outcomes,
+                System.nanoTime() - start);
+    }
+
+    // Like search, but every root move gets a full window so its value is exact rather than a bound
+    public Ranking rank(Game position) {
+        long start = begin(position);
+        int[] moves = moveBuffers[0];
+        List<RankedMove> ranked = List.of();
+        int bestMove = -1;
+        int completedDepth = 0;
+        for (int depth = 1; depth <= maxDepth && !aborted; depth++) {
+            int count = MoveOrdering.orderedMoves(game, moves, orderKeys[0], bestMove);
+            if (count == 0) {
+                break;
+            }
+            RankedMove[] iteration = new RankedMove[count];
+            for (int i = 0; i < count && !aborted; i++) {
+                iteration[i] = new RankedMove(moves[i], child(moves[i], depth - 1, 1, -INFINITY, INFINITY));
+            }
+            if (!aborted) {
+                Arrays.sort(iteration, Comparator.comparingDouble(RankedMove::value).reversed());
+                ranked = List.of(iteration);
+                bestMove = iteration[0].move();
+                completedDepth = depth;
+            }
+        }
+        game = null;
+        return new Ranking(ranked, completedDepth, nodes, System.nanoTime() - start);
+    }
+
+    private long begin(Game position) {
+        long start = System.nanoTime();
+        game = GameSnapshot.of(position).toGame(new SplittableRandom(0));
+        rootPlayer = game.getCurrentPlayerIndex();
+        deadline = start + budget.toNanos();
+        aborted = false;
+        nodes = 0;
+        chanceNodes = 0;
+        outcomes = 0;
+        return start;
+    }
+
+    // Plays the move and searches what follows it, through a chance node if the move ended the round
+    private double child(int move, int depth, int ply, double alpha, double beta) {
+        game.applyMove(move);
+        double value = game.lastMoveEndedRound() && !game.isGameEnded() && depth > 0
+                ? chance(depth, ply)
+                : search(depth, ply, alpha, beta);
+        game.undoMove();
+        return value;
+    }
+
+    private double chance(int depth, int ply) {
+        chanceNodes++;
+        List<RefillDistribution.Outcome> refills = RefillDistribution.of(game).outcomes(outcomesPerChanceNode);
+        double value = 0;
+        for (RefillDistribution.Outcome refill : refills) {
+            game.applyRefill(refill);
+            outcomes++;
+            value += refill.weight() * search(depth, ply, -INFINITY, INFINITY);
+            if (aborted) {
+                return 0;
+            }
+        }
+        return value;
+    }
+
+    private double search(int depth, int ply, double alpha, double beta) {
+        nodes++;
+        if ((nodes & DEADLINE_CHECK_MASK) == 0
+                && (System.nanoTime() > deadline || Thread.currentThread().isInterrupted())) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+        if (depth == 0 || game.isGameEnded() || ply == MAX_DEPTH) {
+            return Rollouts.margin(game, rootPlayer);
+        }
+
+        int[] moves = moveBuffers[ply];
+        int count = MoveOrdering.orderedMoves(game, moves, orderKeys[ply], -1);
+        if (count == 0) {
+            return Rollouts.margin(game, rootPlayer);
+        }
+        boolean maximizing = game.getCurrentPlayerIndex() == rootPlayer;
+        double best = maximizing ? -INFINITY : INFINITY;
+        for (int i = 0; i < count; i++) {
+            double value = child(moves[i], depth - 1, ply + 1, alpha, beta);
+            if (aborted) {
+                return 0;
+            }
+            if (maximizing) {
+                best = Math.max(best, value);
+                alpha = Math.max(alpha, value);
+            } else {
+                best = Math.min(best, value);
+                beta = Math.min(beta, value);
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,113 @@
+package hr.algebra.azul.ai;
+
+import hr.algebra.azul.model.CentralArea;
+import hr.algebra.azul.model.Factory;
+import hr.algebra.azul.model.Game;
+import hr.algebra.azul.model.Move;
+import hr.algebra.azul.model.PatternLines;
+import hr.algebra.azul.model.Player;
+import hr.algebra.azul.model.TileColor;
+import hr.algebra.azul.model.Wall;
+import hr.algebra.azul.model.WallMask;
+import hr.algebra.azul.simulation.MovePolicy;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Greedy one-ply bot for seats that cannot afford a search. The position terms that do not depend
+// on the move (tiles of each color still on the table, the wall as it will look once the lines that
+// are already full are tiled, the floor) are gathered once per decision; each legal move is then
+// scored by the change it makes to those terms, in constant time and without touching the Game.
+public class HeuristicBot implements MovePolicy {
+    private static final TileColor[] COLORS = TileColor.values();
+    // Chance that a line left short this turn is finished later in the round, or otherwise next round
+    private static final double FINISH_THIS_ROUND = 0.7;
+    private static final double FINISH_LATER = 0.4;
+    // Worth of one step towards a row, column or color bonus, by tiles already there
+    private static final double[] ROW_PROGRESS = progress(2);
+    private static final double[] COLUMN_PROGRESS = progress(7);
+    private static final double[] COLOR_PROGRESS = progress(10);
+
+    private final int[] tableCounts = new int[COLORS.length];
+
+    // The value of completing the k-th tile of a bonus line grows quadratically, adding up to the bonus
+    private static double[] progress(int bonus) {
+        double[] steps = new double[WallMask.SIZE];
+        for (int k = 0; k < steps.length; k++) {
+            steps[k] = bonus * ((k + 1) * (k + 1) - k * k) / 25.0;
+        }
+        return steps;
+    }
+
+    @Override
+    public int chooseMove(Game game, int[] moves, int count, SplittableRandom random) {
+        Player player = game.getCurrentPlayer();
+        PatternLines lines = player.getPatternLines();
+        Wall wall = player.getWall();
+        CentralArea center = game.getCentralArea();
+        List<Factory> factories = game.getFactories();
+
+        for (TileColor color : COLORS) {
+            int total = center.getTileCount(color);
+            for (int i = 0; i < factories.size(); i++) {
+                total += factories.get(i).getTileCount(color);
+            }
+            tableCounts[color.ordinal()] = total;
+        }
+
+        // Full lines are tiled at the end of the round whatever this player does now
+        int pendingMask = wall.getMask();
+        for (int row = 0; row < WallMask.SIZE; row++) {
+            if (lines.isLineFull(row) && wall.canPlaceTile(lines.getLineColor(row), row)) {
+                pendingMask = WallMask.place(pendingMask, lines.getLineColor(row), row);
+            }
+        }
+        int floor = player.getNegativeLineCount();
+        int floorPenalty = Player.negativeLinePenalty(floor);
+
+        int best = moves[0];
+        double bestScore = Double.NEGATIVE_INFINITY;
+        int ties = 0;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            double score = score(move, game, lines, pendingMask, floor, floorPenalty);
+            if (score > bestScore) {
+                bestScore = score;
+                best = move;
+                ties = 1;
+            } else if (score == bestScore && random.nextInt(++ties) == 0) {
+                best = move;
+            }
+        }
+        return best;
+    }
+
+    private double score(int move, Game game, PatternLines lines, int pendingMask, int floor, int floorPenalty) {
+        TileColor color = Move.color(move);
+        int taken = Move.isFromCenter(move)
+                ? game.getCentralArea().getTileCount(color)
+                : game.getFactories().get(Move.source(move)).getTileCount(color);
+        if (Move.isToFloor(move)) {
+            return Player.negativeLinePenalty(floor + taken) - floorPenalty;
+        }
+
+        int row = Move.line(move);
+        int room = row + 1 - lines.getLineCount(row);
+        int fits = Math.min(taken, room);
+        int overflow = taken - fits;
+        double value = Player.negativeLinePenalty(floor + overflow) - floorPenalty;
+
+        int col = WallMask.columnForColor(color, row);
+        double gain = WallMask.placementScore(pendingMask, row, col)
+                + ROW_PROGRESS[Integer.bitCount(WallMask.rowBits(pendingMask, row))]
+                + COLUMN_PROGRESS[Integer.bitCount(WallMask.columnBits(pendingMask, col))]
+                + COLOR_PROGRESS[Integer.bitCount(pendingMask & WallMask.colorMask(color))];
+        if (fits == room) {
+            return value + gain;
+        }
+
+        // Tiles of this color left on the table after the take decide whether the line can still fill
+        int missing = room - fits;
+        double odds = tableCounts[color.ordinal()] - taken >= missing ? FINISH_THIS_ROUND : FINISH_LATER;
+        return value + odds * gain * fits / room;
+    }
+}
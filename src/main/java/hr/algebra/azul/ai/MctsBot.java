@@ -0,0 +1,286 @@
+package hr.algebra.azul.ai;
+
+import hr.algebra.azul.model.Game;
+import hr.algebra.azul.model.GameSnapshot;
+import hr.algebra.azul.model.MoveGenerator;
+import hr.algebra.azul.simulation.MovePolicy;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+// Monte Carlo Tree Search with tree parallelism: every worker walks one shared tree, and a node's
+// visit count is raised on the way down (virtual loss) so concurrent workers spread over different
+// branches. Workers play on private Game copies with applyMove/undoMove. The tree stops at the end
+// of the current round because refills are random; playouts from there finish the round and are
+// scored by margin over the best opponent. The subtree for the position after the opponents'
+// replies is kept between turns.
+public class MctsBot implements MovePolicy, AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(MctsBot.class.getName());
+    private static final double EXPLORATION = 0.7;
+    private static final double VALUE_SCALE = 1 << 20;
+    private static final int REUSE_DEPTH = 8;
+
+    private final Duration timeBudget;
+    private final int iterationBudget;
+    private final int parallelism;
+    private final SplittableRandom seeds;
+    private final ExecutorService workers;
+    private Node root;
+    private SearchResult lastSearch;
+
+    public MctsBot(Duration timeBudget, int iterationBudget, int parallelism, long seed) {
+        if (parallelism < 1 || iterationBudget < 1) {
+            throw new IllegalArgumentException("Parallelism and iteration budget must be >= 1");
+        }
+        this.timeBudget = timeBudget;
+        this.iterationBudget = iterationBudget;
+        this.parallelism = parallelism;
+        this.seeds = new SplittableRandom(seed);
+        this.workers = parallelism == 1 ? null : Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "mcts-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static MctsBot withTimeBudget(Duration timeBudget) {
+        return new MctsBot(timeBudget, Integer.MAX_VALUE, Runtime.getRuntime().availableProcessors(), System.nanoTime());
+    }
+
+    public record SearchResult(int move, int iterations, long elapsedNanos, int rootVisits, boolean reusedTree) {
+        public double iterationsPerSecond() {
+            return elapsedNanos == 0 ? 0 : iterations * 1e9 / elapsedNanos;
+        }
+    }
+
+    // Searches and plays the chosen move on the game
+    public int playTurn(Game game) {
+        int move = search(game).move();
+        game.applyMove(move);
+        return move;
+    }
+
+    @Override
+    public int chooseMove(Game game, int[] moves, int count, SplittableRandom random) {
+        return count == 1 ? moves[0] : search(game).move();
+    }
+
+    public synchronized SearchResult search(Game game) {
+        long start = System.nanoTime();
+        long deadline = start + timeBudget.toNanos();
+        long rootHash = game.getZobristHash();
+        boolean reused = reuseSubtree(rootHash);
+        if (!reused) {
+            root = new Node(-1, -1, Node.INNER);
+            root.positionHash = rootHash;
+        }
+
+        GameSnapshot position = GameSnapshot.of(game);
+        AtomicInteger claimed = new AtomicInteger();
+        AtomicInteger iterations = new AtomicInteger();
+        if (workers == null) {
+            runWorker(position.toGame(seeds.split()), seeds.split(), deadline, claimed, iterations);
+        } else {
+            List<Future<?>> running = new ArrayList<>(parallelism);
+            for (int i = 0; i < parallelism; i++) {
+                Game copy = position.toGame(seeds.split());
+                SplittableRandom random = seeds.split();
+                running.add(workers.submit(() -> runWorker(copy, random, deadline, claimed, iterations)));
+            }
+            for (Future<?> future : running) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (ExecutionException e) {
+                    LOGGER.severe("MCTS worker failed: " + e.getCause());
+                }
+            }
+        }
+
+        int move = bestMove(game);
+        lastSearch = new SearchResult(move, iterations.get(),
+                System.nanoTime() - start, root.visits.get(), reused);
+        return lastSearch;
+    }
+
+    public SearchResult getLastSearch() {
+        return lastSearch;
+    }
+
+    // The previous tree usually contains the current position a few plies below its root, or at the
+    // root itself when the same position is searched again
+    private boolean reuseSubtree(long positionHash) {
+        if (root == null) {
+            return false;
+        }
+        ArrayDeque<Node> queue = new ArrayDeque<>();
+        ArrayDeque<Integer> depths = new ArrayDeque<>();
+        queue.add(root);
+        depths.add(0);
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            int depth = depths.poll();
+            if (node.positionHash == positionHash && node.state == Node.INNER) {
+                root = node;
+                return true;
+            }
+            Node[] children = node.children;
+            if (children != null && depth < REUSE_DEPTH) {
+                for (Node child : children) {
+                    if (child.positionHash != 0) {
+                        queue.add(child);
+                        depths.add(depth + 1);
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private void runWorker(Game game, SplittableRandom random, long deadline,
+                           AtomicInteger claimed, AtomicInteger iterations) {
+        int[] buffer = MoveGenerator.newBuffer();
+        double[] rewards = new double[game.getPlayers().size()];
+        Node[] path = new Node[MoveGenerator.MAX_MOVES];
+        while (claimed.getAndIncrement() < iterationBudget && System.nanoTime() < deadline) {
+            iterate(game, random, buffer, rewards, path);
+            iterations.incrementAndGet();
+        }
+    }
+
+    private void iterate(Game game, SplittableRandom random, int[] buffer, double[] rewards, Node[] path) {
+        Node node = root;
+        node.visits.incrementAndGet();
+        int depth = 0;
+
+        // Selection, adding a virtual loss to each node entered
+        while (node.state == Node.INNER && node.children != null) {
+            node = select(node);
+            node.visits.incrementAndGet();
+            game.applyMove(node.move);
+            path[depth++] = node;
+            node.visit(game);
+        }
+
+        // Expansion of one child of a leaf that has been visited before
+        if (node.state == Node.INNER && (node == root || node.visits.get() > 1) && node.expand(game, buffer)) {
+            node = select(node);
+            node.visits.incrementAndGet();
+            game.applyMove(node.move);
+            path[depth++] = node;
+            node.visit(game);
+        }
+
+        int played = node.state == Node.INNER ? Rollouts.playToRoundEnd(game, buffer, random) : 0;
+        Rollouts.rewards(game, rewards);
+        Rollouts.undo(game, played);
+
+        // Only the reward is added now; the visits were counted on the way down
+        for (int i = depth - 1; i >= 0; i--) {
+            Node visited = path[i];
+            visited.value.addAndGet((long) (rewards[visited.player] * VALUE_SCALE));
+            game.undoMove();
+        }
+    }
+
+    private static Node select(Node node) {
+        Node[] children = node.children;
+        double logParent = Math.log(Math.max(1, node.visits.get()));
+        Node best = children[0];
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (Node child : children) {
+            int visits = child.visits.get();
+            if (visits == 0) {
+                return child;
+            }
+            double score = child.value.get() / VALUE_SCALE / visits + EXPLORATION * Math.sqrt(logParent / visits);
+            if (score > bestScore) {
+                bestScore = score;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    private int bestMove(Game game) {
+        Node[] children = root.children;
+        if (children == null) {
+            int[] moves = MoveGenerator.newBuffer();
+            return MoveGenerator.generate(game, moves) == 0 ? -1 : moves[0];
+        }
+        Node best = children[0];
+        for (Node child : children) {
+            if (child.visits.get() > best.visits.get()) {
+                best = child;
+            }
+        }
+        return best.move;
+    }
+
+    @Override
+    public void close() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    private static final class Node {
+        static final int UNSEEN = 0;
+        static final int INNER = 1;
+        // Round or game over: below here refills are random, so the node is scored by playout
+        static final int FRONTIER = 2;
+
+        final int move;
+        final int player;
+        final AtomicInteger visits = new AtomicInteger();
+        final AtomicLong value = new AtomicLong();
+        volatile Node[] children;
+        volatile int state;
+        volatile long positionHash;
+
+        Node(int move, int player, int state) {
+            this.move = move;
+            this.player = player;
+            this.state = state;
+        }
+
+        // Records what the position looks like once this node's move is on the board
+        void visit(Game game) {
+            if (state == UNSEEN) {
+                positionHash = game.getZobristHash();
+                state = game.isGameEnded() || game.lastMoveEndedRound() ? FRONTIER : INNER;
+            }
+        }
+
+        boolean expand(Game game, int[] buffer) {
+            if (children == null) {
+                synchronized (this) {
+                    if (children == null) {
+                        int count = MoveGenerator.generate(game, buffer);
+                        if (count == 0) {
+                            state = FRONTIER;
+                            return false;
+                        }
+                        Node[] created = new Node[count];
+                        for (int i = 0; i < count; i++) {
+                            created[i] = new Node(buffer[i], game.getCurrentPlayerIndex(), UNSEEN);
+                        }
+                        children = created;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package hr.algebra.azul.ai;
+
+import hr.algebra.azul.model.CanonicalPosition;
+import hr.algebra.azul.model.Game;
+import hr.algebra.azul.model.GameSnapshot;
+import hr.algebra.azul.model.Move;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Logger;
+
+// Ranks the legal moves of a position on a background thread for UI hints. Rankings are cached by
+// CanonicalPosition key, with moves in canonical form, so they survive factory reordering and
+// revisits. Each position change cancels the running analysis and starts one for the new position.
+// While an opponent is to move the analysis carries on into the positions their best-ranked moves
+// lead to, so the hint is usually ready when the turn comes back. Nothing here blocks the caller.
+public class MoveHintService implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(MoveHintService.class.getName());
+    private static final int MAX_CACHED = 1 << 12;
+    private static final int MAX_PRECOMPUTED = 64;
+    private static final int OUTCOMES_PER_CHANCE_NODE = 8;
+
+    private final int maxDepth;
+    private final Duration budget;
+    private final int precomputeWidth;
+    private final ExecutorService worker;
+    private final Map<Long, Hint> cache = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<Hint>> waiting = new HashMap<>();
+    private Future<?> analysis;
+    private long analysisKey;
+
+    // budget applies to each position analysed; precomputeWidth is how many of an opponent's
+    // best moves are followed
+    public MoveHintService(int maxDepth, Duration budget, int precomputeWidth) {
+        this.maxDepth = maxDepth;
+        this.budget = budget;
+        this.precomputeWidth = precomputeWidth;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "move-hint-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static MoveHintService withDefaults() {
+        return new MoveHintService(3, Duration.ofSeconds(2), 3);
+    }
+
+    // moves are canonical (see CanonicalPosition.canonicalMove), best first; depth is the deepest
+    // search iteration that completed
+    public record Hint(long positionKey, List<ExpectimaxSearch.RankedMove> moves, int depth) {
+        public int bestMove(Game game) {
+            return moves.isEmpty() ? Move.NONE : CanonicalPosition.concreteMove(game, moves.get(0).move());
+        }
+    }
+
+    // Call after every change to the game; hintPlayer is the seat hints are shown to
+    public synchronized void positionChanged(Game game, int hintPlayer) {
+        long key = CanonicalPosition.key(game);
+        if (analysis != null && !analysis.isDone() && analysisKey == key) {
+            return;
+        }
+        cancelAnalysis(key);
+        if (game.isGameEnded() || (game.getCurrentPlayerIndex() == hintPlayer && cache.containsKey(key))) {
+            return;
+        }
+        GameSnapshot position = GameSnapshot.of(game);
+        analysisKey = key;
+        analysis = worker.submit(() -> analyse(position, hintPlayer));
+    }
+
+    // Completes with the hint for the game's current position, at once when it is cached or the game
+    // has ended (with no moves). The future is cancelled if the position changes before the analysis finishes.
+    public synchronized CompletableFuture<Hint> hint(Game game) {
+        long key = CanonicalPosition.key(game);
+        if (game.isGameEnded()) {
+            // positionChanged never analyses a finished game, so nothing would complete a waiting future
+            return CompletableFuture.completedFuture(new Hint(key, List.of(), 0));
+        }
+        Hint cached = cache.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<Hint> pending = waiting.computeIfAbsent(key, k -> new CompletableFuture<>());
+        if (analysis == null || analysis.isDone() || analysisKey != key) {
+            positionChanged(game, game.getCurrentPlayerIndex());
+        }
+        return pending;
+    }
+
+    private void cancelAnalysis(long keep) {
+        if (analysis != null) {
+            analysis.cancel(true);
+        }
+        waiting.entrySet().removeIf(entry -> entry.getKey() != keep && entry.getValue().cancel(false));
+    }
+
+    private void analyse(GameSnapshot root, int hintPlayer) {
+        ExpectimaxSearch search = new ExpectimaxSearch(maxDepth, budget, OUTCOMES_PER_CHANCE_NODE);
+        Game game = root.toGame(new SplittableRandom(0));
+        Queue<GameSnapshot> positions = new ArrayDeque<>(List.of(root));
+        for (int analysed = 0; !positions.isEmpty() && analysed < MAX_PRECOMPUTED; analysed++) {
+            positions.poll().applyTo(game);
+            long key = CanonicalPosition.key(game);
+            Hint hint = cache.get(key);
+            if (hint == null) {
+                ExpectimaxSearch.Ranking ranking = search.rank(game);
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                if (ranking.depth() == 0) {
+                    fail(key, new TimeoutException("No search pass finished within " + budget));
+                    return;
+                }
+                hint = new Hint(key, ranking.moves().stream()
+                        .map(ranked -> new ExpectimaxSearch.RankedMove(
+                                CanonicalPosition.canonicalMove(game, ranked.move()), ranked.value()))
+                        .toList(), ranking.depth());
+                store(hint);
+            }
+            if (game.getCurrentPlayerIndex() == hintPlayer) {
+                continue;
+            }
+            // Refills are random, so positions past the end of the round cannot be foreseen
+            for (int i = 0; i < Math.min(precomputeWidth, hint.moves().size()); i++) {
+                game.applyMove(CanonicalPosition.concreteMove(game, hint.moves().get(i).move()));
+                if (!game.lastMoveEndedRound()) {
+                    positions.add(GameSnapshot.of(game));
+                }
+                game.undoMove();
+            }
+        }
+        LOGGER.fine(() -> "Move hint analysis finished, " + cache.size() + " positions cached");
+    }
+
+    private synchronized void store(Hint hint) {
+        if (cache.size() >= MAX_CACHED) {
+            cache.clear();
+        }
+        cache.put(hint.positionKey(), hint);
+        CompletableFuture<Hint> pending = waiting.remove(hint.positionKey());
+        if (pending != null) {
+            pending.complete(hint);
+        }
+    }
+
+    // A caller waiting on a position that cannot be ranked hears so instead of waiting for the next change
+    private synchronized void fail(long key, Throwable cause) {
+        CompletableFuture<Hint> pending = waiting.remove(key);
+        if (pending != null) {
+            pending.completeExceptionally(cause);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        worker.shutdownNow();
+        waiting.values().forEach(pending -> pending.cancel(false));
+        waiting.clear();
+    }
+}
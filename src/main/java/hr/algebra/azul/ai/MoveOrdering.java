@@ -0,0 +1,51 @@
+package hr.algebra.azul.ai;
+
+import hr.algebra.azul.model.Game;
+import hr.algebra.azul.model.Move;
+import hr.algebra.azul.model.MoveGenerator;
+import hr.algebra.azul.model.Player;
+import hr.algebra.azul.model.TileColor;
+
+// Best-first move ordering for the alpha-beta searches: the hint move, then moves that fill a line
+// without overflow, larger takes before smaller, and floor moves last
+final class MoveOrdering {
+    private MoveOrdering() {
+    }
+
+    // Generates the legal moves into moves, sorted; keys is scratch space of the same size
+    static int orderedMoves(Game game, int[] moves, int[] keys, int hintMove) {
+        int count = MoveGenerator.generate(game, moves);
+        Player player = game.getCurrentPlayer();
+        for (int i = 0; i < count; i++) {
+            keys[i] = moves[i] == hintMove ? Integer.MAX_VALUE : orderKey(game, player, moves[i]);
+        }
+        for (int i = 1; i < count; i++) {
+            int move = moves[i];
+            int key = keys[i];
+            int j = i - 1;
+            while (j >= 0 && keys[j] < key) {
+                moves[j + 1] = moves[j];
+                keys[j + 1] = keys[j];
+                j--;
+            }
+            moves[j + 1] = move;
+            keys[j + 1] = key;
+        }
+        return count;
+    }
+
+    private static int orderKey(Game game, Player player, int move) {
+        TileColor color = Move.color(move);
+        int taken = Move.isFromCenter(move)
+                ? game.getCentralArea().getTileCount(color)
+                : game.getFactories().get(Move.source(move)).getTileCount(color);
+        if (Move.isToFloor(move)) {
+            return -taken;
+        }
+        int line = Move.line(move);
+        int room = line + 1 - player.getPatternLines().getLineCount(line);
+        int fits = Math.min(taken, room);
+        int overflow = taken - fits;
+        return 100 + (fits == room ? 50 : 0) + fits * 4 - overflow * 8;
+    }
+}
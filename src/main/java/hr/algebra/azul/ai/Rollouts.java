@@ -0,0 +1,70 @@
+package hr.algebra.azul.ai;
+
+import hr.algebra.azul.model.Game;
+import hr.algebra.azul.model.Move;
+import hr.algebra.azul.model.MoveGenerator;
+import java.util.SplittableRandom;
+
+// Cheap playout helpers shared by the search bots. Playouts are applied in place and undone with
+// Game.undoMove, so a worker needs one private Game and no copies.
+final class Rollouts {
+    private Rollouts() {
+    }
+
+    // Random moves, re-drawing once when the pick dumps tiles on the floor
+    static int pickMove(int[] moves, int count, SplittableRandom random) {
+        int move = moves[random.nextInt(count)];
+        if (Move.isToFloor(move) && count > 1) {
+            move = moves[random.nextInt(count)];
+        }
+        return move;
+    }
+
+    // Plays until the current round is tiled or the game ends; returns the number of moves applied
+    static int playToRoundEnd(Game game, int[] buffer, SplittableRandom random) {
+        int played = 0;
+        while (!game.isGameEnded()) {
+            int count = MoveGenerator.generate(game, buffer);
+            if (count == 0) {
+                break;
+            }
+            game.applyMove(pickMove(buffer, count, random));
+            played++;
+            if (game.lastMoveEndedRound()) {
+                break;
+            }
+        }
+        return played;
+    }
+
+    static void undo(Game game, int moves) {
+        for (int i = 0; i < moves; i++) {
+            game.undoMove();
+        }
+    }
+
+    // Score with the end-of-game bonuses the wall would earn now; final scores already include them
+    static int projectedScore(Game game, int player) {
+        int score = game.getPlayers().get(player).getScore();
+        return game.isGameEnded() ? score : score + game.getPlayers().get(player).getWall().calculateScore();
+    }
+
+    // Projected score minus the best opponent's
+    static int margin(Game game, int player) {
+        int bestOther = Integer.MIN_VALUE;
+        for (int q = 0; q < game.getPlayers().size(); q++) {
+            if (q != player) {
+                bestOther = Math.max(bestOther, projectedScore(game, q));
+            }
+        }
+        return projectedScore(game, player) - bestOther;
+    }
+
+    // Per-player reward in [0, 1] from the margin over the best opponent
+    static void rewards(Game game, double[] out) {
+        int players = game.getPlayers().size();
+        for (int p = 0; p < players; p++) {
+            out[p] = 1.0 / (1.0 + Math.exp(-margin(game, p) / 10.0));
+        }
+    }
+}
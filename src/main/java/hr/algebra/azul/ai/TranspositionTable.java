@@ -0,0 +1,59 @@
+package hr.algebra.azul.ai;
+
+// Fixed-size, always-replace hash table for search results, keyed by a 64-bit position key.
+// Entries from earlier searches are ignored by bumping the generation instead of clearing.
+final class TranspositionTable {
+    static final int EXACT = 0;
+    static final int LOWER = 1;
+    static final int UPPER = 2;
+
+    private final long[] keys;
+    private final int[] values;
+    private final int[] moves;
+    private final byte[] flags;
+    private final int[] generations;
+    private final int mask;
+    private int generation;
+
+    TranspositionTable(int log2Size) {
+        int size = 1 << log2Size;
+        keys = new long[size];
+        values = new int[size];
+        moves = new int[size];
+        flags = new byte[size];
+        generations = new int[size];
+        mask = size - 1;
+        generation = 1;
+    }
+
+    void newSearch() {
+        generation++;
+    }
+
+    // Slot index for the key, or -1 when the table holds nothing for it
+    int probe(long key) {
+        int index = (int) (key ^ (key >>> 32)) & mask;
+        return keys[index] == key && generations[index] == generation ? index : -1;
+    }
+
+    void store(long key, int value, int flag, int move) {
+        int index = (int) (key ^ (key >>> 32)) & mask;
+        keys[index] = key;
+        values[index] = value;
+        flags[index] = (byte) flag;
+        moves[index] = move;
+        generations[index] = generation;
+    }
+
+    int value(int index) {
+        return values[index];
+    }
+
+    int flag(int index) {
+        return flags[index];
+    }
+
+    int move(int index) {
+        return moves[index];
+    }
+}
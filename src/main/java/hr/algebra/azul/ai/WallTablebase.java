@@ -0,0 +1,159 @@
+package hr.algebra.azul.ai;
+
+import hr.algebra.azul.model.WallMask;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Logger;
+
+// End-of-game bonus potential (Wall.calculateScore: rows x2, columns x7, colors x10) for every one of
+// the 2^25 wall masks, kept in a memory-mapped file. Given enough tiles every wall reaches the full
+// 95, so what a mask is worth depends on how many more tiles it gets: the table holds the best bonus
+// reachable with 0 to HORIZON extra tiles, one int per mask. Bits 0-6 are the current bonus; each
+// following 5-bit field is what one more tile adds to the best, which never exceeds MAX_TILE_BONUS
+// because removing one tile from a wall breaks at most one row, one column and one color.
+// HORIZON is the most tiles a wall can take in one round. The per-row limit is not modelled, so for
+// search these are upper bounds: one read tells whether a line can still reach a target bonus.
+public final class WallTablebase {
+    private static final Logger LOGGER = Logger.getLogger(WallTablebase.class.getName());
+    public static final int HORIZON = WallMask.SIZE;
+    public static final int MAX_BONUS = WallMask.bonusScore(WallMask.FULL);
+    // Row, column and color completed by the same tile
+    public static final int MAX_TILE_BONUS = 2 + 7 + 10;
+
+    private static final int MASKS = 1 << (WallMask.SIZE * WallMask.SIZE);
+    private static final int MAGIC = 0x415A5442;   // "AZTB"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final long FILE_BYTES = HEADER_BYTES + (long) MASKS * Integer.BYTES;
+    private static final int BASE_BITS = 7;
+    private static final int STEP_BITS = 5;
+    private static final int STEP_MASK = (1 << STEP_BITS) - 1;
+
+    private final ByteBuffer entries;
+
+    private WallTablebase(ByteBuffer entries) {
+        this.entries = entries;
+    }
+
+    // Maps the table at path, building it there first when the file is missing or not a table
+    public static WallTablebase open(Path path) throws IOException {
+        if (!isValid(path)) {
+            build(path);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_BYTES);
+            return new WallTablebase(mapped);
+        }
+    }
+
+    // Best bonus the wall can hold after extraTiles more tiles. Exact up to HORIZON; past it each
+    // tile is credited with MAX_TILE_BONUS, which keeps it an upper bound.
+    public int maxBonus(int mask, int extraTiles) {
+        int entry = entry(mask);
+        int bonus = entry & ((1 << BASE_BITS) - 1);
+        int steps = Math.min(extraTiles, HORIZON);
+        for (int k = 0; k < steps; k++) {
+            bonus += (entry >>> (BASE_BITS + k * STEP_BITS)) & STEP_MASK;
+        }
+        if (extraTiles > HORIZON) {
+            bonus += (extraTiles - HORIZON) * MAX_TILE_BONUS;
+        }
+        return Math.min(bonus, MAX_BONUS);
+    }
+
+    // Fewest extra tiles that can bring the wall to at least bonus; exact up to HORIZON and a lower
+    // bound past it. Integer.MAX_VALUE when the bonus is more than a full wall earns.
+    public int minTiles(int mask, int bonus) {
+        if (bonus > MAX_BONUS) {
+            return Integer.MAX_VALUE;
+        }
+        int entry = entry(mask);
+        int reached = entry & ((1 << BASE_BITS) - 1);
+        if (reached >= bonus) {
+            return 0;
+        }
+        for (int k = 0; k < HORIZON; k++) {
+            reached += (entry >>> (BASE_BITS + k * STEP_BITS)) & STEP_MASK;
+            if (reached >= bonus) {
+                return k + 1;
+            }
+        }
+        return HORIZON + (bonus - reached + MAX_TILE_BONUS - 1) / MAX_TILE_BONUS;
+    }
+
+    private int entry(int mask) {
+        return entries.getInt(HEADER_BYTES + mask * Integer.BYTES);
+    }
+
+    private static boolean isValid(Path path) throws IOException {
+        if (!Files.isRegularFile(path) || Files.size(path) != FILE_BYTES) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read the whole header
+            }
+            return header.getInt(0) == MAGIC && header.getInt(4) == VERSION && header.getInt(8) == HORIZON;
+        }
+    }
+
+    // Writes the table to a temporary file next to path and moves it into place, so a reader never
+    // maps a half-written table. Each level is the best over one more tile:
+    // best[k](m) = max(best[k-1](m), best[k-1](m | cell)) over the empty cells of m.
+    public static void build(Path path) throws IOException {
+        long start = System.nanoTime();
+        byte[] previous = new byte[MASKS];
+        byte[] current = new byte[MASKS];
+        int[] packed = new int[MASKS];
+        for (int mask = 0; mask < MASKS; mask++) {
+            int bonus = WallMask.bonusScore(mask);
+            previous[mask] = (byte) bonus;
+            packed[mask] = bonus;
+        }
+        for (int k = 0; k < HORIZON; k++) {
+            int shift = BASE_BITS + k * STEP_BITS;
+            for (int mask = 0; mask < MASKS; mask++) {
+                int best = previous[mask];
+                for (int empty = ~mask & WallMask.FULL; empty != 0; empty &= empty - 1) {
+                    best = Math.max(best, previous[mask | (empty & -empty)]);
+                }
+                current[mask] = (byte) best;
+                packed[mask] |= (best - previous[mask]) << shift;
+            }
+            byte[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        Path absolute = path.toAbsolutePath();
+        if (absolute.getParent() != null) {
+            Files.createDirectories(absolute.getParent());
+        }
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_BYTES);
+                out.putInt(MAGIC).putInt(VERSION).putInt(HORIZON).putInt(0);
+                out.asIntBuffer().put(packed);
+                out.force();
+            }
+            Files.move(temp, absolute, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        LOGGER.info(() -> String.format("Built wall tablebase %s in %.1f s", absolute,
+                (System.nanoTime() - start) / 1e9));
+    }
+
+    // Usage: WallTablebase <file>
+    public static void main(String[] args) throws IOException {
+        build(Path.of(args.length > 0 ? args[0] : "wall-tablebase.bin"));
+    }
+}
@@ -0,0 +1,236 @@
+package hr.algebra.azul.ai;
+
+import hr.algebra.azul.model.Game;
+import hr.algebra.azul.model.GameSnapshot;
+import hr.algebra.azul.model.MoveGenerator;
+import hr.algebra.azul.simulation.MovePolicy;
+import hr.algebra.azul.simulation.SimulationRunner;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+// Estimates each player's chance of winning and expected final score by playing the game out from
+// the current position many times. Workers share nothing but a tally that they merge into every few
+// playouts; estimation stops once every win probability has a standard error below the target, or
+// at the deadline. The position is copied on the calling thread, so the live Game can keep changing.
+public class WinProbabilityEstimator implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(WinProbabilityEstimator.class.getName());
+    private static final int BATCH = 16;
+    private static final int MIN_PLAYOUTS = 256;
+    private static final int MOVE_LIMIT = 1000;
+
+    private final int parallelism;
+    private final Supplier<? extends MovePolicy> policy;
+    private final double targetStdError;
+    private final SplittableRandom seeds;
+    private final ExecutorService workers;
+
+    // policy plays every seat in the playouts; the bag's randomness gives them their spread
+    public WinProbabilityEstimator(int parallelism, Supplier<? extends MovePolicy> policy, double targetStdError, long seed) {
+        if (parallelism < 1 || targetStdError <= 0) {
+            throw new IllegalArgumentException("Parallelism must be >= 1 and the target error positive");
+        }
+        this.parallelism = parallelism;
+        this.policy = policy;
+        this.targetStdError = targetStdError;
+        this.seeds = new SplittableRandom(seed);
+        this.workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "win-odds-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static WinProbabilityEstimator withDefaults() {
+        return new WinProbabilityEstimator(Runtime.getRuntime().availableProcessors(), HeuristicBot::new, 0.01,
+                System.nanoTime());
+    }
+
+    // Ties share the win. Stalled playouts hit the move limit or ran out of tiles and are left out.
+    public record Estimate(double[] winProbability, double[] winStdError, double[] expectedScore,
+                           long playouts, long stalledPlayouts, boolean converged, long elapsedNanos) {
+        public double playoutsPerSecond() {
+            return elapsedNanos == 0 ? 0 : playouts * 1e9 / elapsedNanos;
+        }
+
+        // Largest change in any player's win probability since an earlier estimate of the same game
+        public double maxSwing(Estimate earlier) {
+            double swing = 0;
+            for (int p = 0; p < winProbability.length; p++) {
+                swing = Math.max(swing, Math.abs(winProbability[p] - earlier.winProbability[p]));
+            }
+            return swing;
+        }
+    }
+
+    public Estimate estimate(Game game, Duration budget) {
+        return estimateAsync(game, budget).join();
+    }
+
+    // Never blocks: the position is copied here and the playouts run on the estimator's threads
+    public CompletableFuture<Estimate> estimateAsync(Game game, Duration budget) {
+        long start = System.nanoTime();
+        GameSnapshot position = GameSnapshot.of(game);
+        Tally tally = new Tally(game.getPlayers().size(), start, start + budget.toNanos());
+        if (game.isGameEnded()) {
+            tally.add(game);
+            tally.playouts = 1;
+            return CompletableFuture.completedFuture(tally.toEstimate(true));
+        }
+
+        CompletableFuture<?>[] running = new CompletableFuture<?>[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            SplittableRandom random = nextSeed();
+            running[i] = CompletableFuture.runAsync(() -> runWorker(position, random, tally), workers);
+        }
+        return CompletableFuture.allOf(running)
+                .exceptionally(e -> {
+                    LOGGER.severe("Win probability worker failed: " + e.getMessage());
+                    return null;
+                })
+                .thenApply(done -> tally.toEstimate(tally.isConverged()));
+    }
+
+    private synchronized SplittableRandom nextSeed() {
+        return seeds.split();
+    }
+
+    private void runWorker(GameSnapshot position, SplittableRandom random, Tally tally) {
+        Game game = position.toGame(random.split());
+        int players = game.getPlayers().size();
+        MovePolicy[] policies = new MovePolicy[players];
+        for (int p = 0; p < players; p++) {
+            policies[p] = policy.get();
+        }
+        int[] moves = MoveGenerator.newBuffer();
+        Tally local = new Tally(players, 0, 0);
+        try {
+            while (!tally.isDone()) {
+                for (int i = 0; i < BATCH; i++) {
+                    position.applyTo(game);
+                    playOut(game, policies, moves, random);
+                    local.add(game);
+                }
+                tally.merge(local);
+            }
+        } finally {
+            SimulationRunner.closeAll(policies);
+        }
+    }
+
+    private static void playOut(Game game, MovePolicy[] policies, int[] moves, SplittableRandom random) {
+        for (int played = 0; !game.isGameEnded() && played < MOVE_LIMIT; played++) {
+            int count = MoveGenerator.generate(game, moves);
+            if (count == 0) {
+                return;
+            }
+            game.applyMove(policies[game.getCurrentPlayerIndex()].chooseMove(game, moves, count, random));
+        }
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    // Agresti-Coull: two wins and two losses are added before taking the binomial error, so a
+    // player who has won every playout or none still has an error that shrinks with playouts
+    // rather than zero, and the estimator does not stop on a lopsided early sample
+    static double stdError(double wins, long playouts) {
+        double p = (wins + 2) / (playouts + 4);
+        return Math.sqrt(p * (1 - p) / (playouts + 4));
+    }
+
+    private final class Tally {
+        private final double[] wins;
+        private final long[] scoreSums;
+        private final long start;
+        private final long deadline;
+        private final AtomicBoolean done = new AtomicBoolean();
+        private long playouts;
+        private long stalled;
+
+        Tally(int players, long start, long deadline) {
+            this.wins = new double[players];
+            this.scoreSums = new long[players];
+            this.start = start;
+            this.deadline = deadline;
+        }
+
+        void add(Game game) {
+            if (!game.isGameEnded()) {
+                stalled++;
+                return;
+            }
+            int best = Integer.MIN_VALUE;
+            int leaders = 0;
+            for (int p = 0; p < wins.length; p++) {
+                int score = game.getPlayers().get(p).getScore();
+                scoreSums[p] += score;
+                if (score > best) {
+                    best = score;
+                    leaders = 1;
+                } else if (score == best) {
+                    leaders++;
+                }
+            }
+            for (int p = 0; p < wins.length; p++) {
+                if (game.getPlayers().get(p).getScore() == best) {
+                    wins[p] += 1.0 / leaders;
+                }
+            }
+            playouts++;
+        }
+
+        // Takes over and clears a worker's batch, then decides whether everyone can stop
+        synchronized void merge(Tally batch) {
+            for (int p = 0; p < wins.length; p++) {
+                wins[p] += batch.wins[p];
+                scoreSums[p] += batch.scoreSums[p];
+                batch.wins[p] = 0;
+                batch.scoreSums[p] = 0;
+            }
+            playouts += batch.playouts;
+            stalled += batch.stalled;
+            batch.playouts = 0;
+            batch.stalled = 0;
+            if (isConverged() || System.nanoTime() >= deadline) {
+                done.set(true);
+            }
+        }
+
+        boolean isDone() {
+            return done.get() || Thread.currentThread().isInterrupted();
+        }
+
+        synchronized boolean isConverged() {
+            if (playouts < MIN_PLAYOUTS) {
+                return false;
+            }
+            for (double won : wins) {
+                if (stdError(won, playouts) > targetStdError) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        synchronized Estimate toEstimate(boolean converged) {
+            int players = wins.length;
+            double[] probability = new double[players];
+            double[] stdError = new double[players];
+            double[] score = new double[players];
+            for (int p = 0; p < players; p++) {
+                probability[p] = playouts == 0 ? 1.0 / players : wins[p] / playouts;
+                stdError[p] = stdError(wins[p], playouts);
+                score[p] = playouts == 0 ? 0 : (double) scoreSums[p] / playouts;
+            }
+            return new Estimate(probability, stdError, score, playouts, stalled, converged, System.nanoTime() - start);
+        }
+    }
+}
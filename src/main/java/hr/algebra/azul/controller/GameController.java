@@ -1,6 +1,7 @@
 package hr.algebra.azul.controller;
 
 import hr.algebra.azul.AzulApplication;
+import hr.algebra.azul.ai.MoveHintService;
 import hr.algebra.azul.model.*;
 import hr.algebra.azul.network.*;
 import hr.algebra.azul.network.game.*;
@@ -42,6 +43,9 @@ public class GameController implements GameStateUpdateHandler {
     private NetworkGameState networkGameState;
     private MultiplayerGameManager gameManager;
 
+    // Move hints are ranked in the background and shown in the status label
+    private final MoveHintService moveHints = MoveHintService.withDefaults();
+
     @FXML private Label turnTimerLabel;
     @FXML private Label currentPlayerLabel;
     @FXML private GridPane factoriesGrid;
@@ -180,6 +184,7 @@ public class GameController implements GameStateUpdateHandler {
 
         // Initialize multiplayer manager
         gameManager = new MultiplayerGameManager(
+                gameState.getGameId(),
                 gameClient,
                 playerId,
                 gameState.getConnectedPlayers()
@@ -241,6 +246,7 @@ public class GameController implements GameStateUpdateHandler {
         warningTimer.playFromStart();
         enableGameControls();
         showInfo("Your turn");
+        requestMoveHint();
     }
 
     private void endTurn() {
@@ -324,6 +330,7 @@ public class GameController implements GameStateUpdateHandler {
             selectedColor = null;
             selectedFactory = null;
             showError("Invalid tile selection");
+            requestMoveHint();
         }
     }
 
@@ -343,12 +350,39 @@ public class GameController implements GameStateUpdateHandler {
             selectedFactory = null;
             clearSelections();
 
-            if (game.getCurrentPlayer().getHand().isEmpty()) {
+            if (game.getCurrentPlayer().isHandEmpty()) {
                 endTurn();
             }
         } else {
             showError("Invalid pattern line selection");
+            requestMoveHint();
+        }
+    }
+
+    private void requestMoveHint() {
+        // A hint that times out or is cancelled is simply not shown
+        moveHints.hint(game).thenAccept(hint -> Platform.runLater(() -> showMoveHint(hint)));
+    }
+
+    private void showMoveHint(MoveHintService.Hint hint) {
+        // The position may have moved on while the hint was computed
+        if (!isCurrentPlayer() || CanonicalPosition.key(game) != hint.positionKey()) return;
+
+        int move = hint.bestMove(game);
+        if (move == Move.NONE) return;
+        String source = Move.isFromCenter(move) ? "the center" : "factory " + (Move.source(move) + 1);
+        String target = Move.isToFloor(move) ? "the floor line" : "pattern line " + (Move.line(move) + 1);
+        showInfo("Hint: take " + Move.color(move) + " from " + source + " to " + target);
+    }
+
+    private int localPlayerIndex() {
+        List<Player> players = game.getPlayers();
+        for (int i = 0; i < players.size(); i++) {
+            if (players.get(i).getName().equals(playerId)) {
+                return i;
+            }
         }
+        return game.getCurrentPlayerIndex();
     }
 
     private void highlightSelectedTiles(Rectangle tileRect) {
@@ -416,6 +450,7 @@ public class GameController implements GameStateUpdateHandler {
         if (turnTimer != null) turnTimer.stop();
         if (warningTimer != null) warningTimer.stop();
         if (statusFade != null) statusFade.stop();
+        moveHints.close();
 
         if (moveManager != null) moveManager.clean();
         if (turnManager != null) turnManager.cleanup();
@@ -732,6 +767,7 @@ public class GameController implements GameStateUpdateHandler {
         updatePlayerHand();
         updateTurnDisplay(game.getCurrentPlayer().getName());
         updateScores();
+        moveHints.positionChanged(game, localPlayerIndex());
     }
 
     private void updateFactories() {
@@ -0,0 +1,68 @@
+package hr.algebra.azul.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Position keys that ignore which factory holds which tiles. Factories are interchangeable, so two
+// positions that differ only by factory order are the same position strategically. Tile order
+// inside a factory or the center never matters because both store color counts. Search tables keyed
+// by canonical keys must store moves in canonical form too, since a factory index from one position
+// may point at different tiles in a transposed one.
+public final class CanonicalPosition {
+    private static final int CANONICAL_SHIFT = 16;
+
+    private CanonicalPosition() {
+    }
+
+    // Zobrist hash with the factory terms replaced by a sum of content keys. The sum is independent
+    // of factory order and, unlike XOR, does not cancel out two factories with the same contents.
+    public static long key(Game game) {
+        long hash = game.getZobristHash();
+        long contents = 0;
+        for (Factory factory : game.getFactories()) {
+            hash ^= factory.zobristHash();
+            contents += Zobrist.factoryContent(factory.contentCode());
+        }
+        return hash ^ contents;
+    }
+
+    // Factory contents as count codes (3 bits per color ordinal) in descending order
+    public static int[] factoryNormalForm(Game game) {
+        List<Factory> factories = game.getFactories();
+        int[] codes = new int[factories.size()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = factories.get(i).contentCode();
+        }
+        Arrays.sort(codes);
+        for (int i = 0, j = codes.length - 1; i < j; i++, j--) {
+            int swap = codes[i];
+            codes[i] = codes[j];
+            codes[j] = swap;
+        }
+        return codes;
+    }
+
+    // A factory move names the factory by its contents instead of its index; center moves are unchanged
+    public static int canonicalMove(Game game, int move) {
+        if (Move.isFromCenter(move)) {
+            return move;
+        }
+        int contentCode = game.getFactories().get(Move.source(move)).contentCode();
+        return ((contentCode + 1) << CANONICAL_SHIFT) | Move.of(0, Move.colorOrdinal(move), Move.line(move));
+    }
+
+    // The move in this position that a canonical move stands for, or Move.NONE when no factory matches
+    public static int concreteMove(Game game, int canonicalMove) {
+        int contentCode = (canonicalMove >>> CANONICAL_SHIFT) - 1;
+        if (contentCode < 0) {
+            return canonicalMove;
+        }
+        List<Factory> factories = game.getFactories();
+        for (int i = 0; i < factories.size(); i++) {
+            if (factories.get(i).contentCode() == contentCode) {
+                return Move.of(i, Move.colorOrdinal(canonicalMove), Move.line(canonicalMove));
+            }
+        }
+        return Move.NONE;
+    }
+}
@@ -4,44 +4,101 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class CentralArea {
-    private List<Tile> tiles;
+    private static final TileColor[] COLORS = TileColor.values();
+    private final int[] counts;
+    private int size;
+    private long hash;
 
     public CentralArea() {
-        tiles = new ArrayList<>();
+        counts = new int[COLORS.length];
+        size = 0;
+        hash = 0;
+    }
+
+    private void setCount(int colorIndex, int count) {
+        long[] keys = Zobrist.CENTER[colorIndex];
+        hash ^= Zobrist.count(keys, counts[colorIndex]) ^ Zobrist.count(keys, count);
+        size += count - counts[colorIndex];
+        counts[colorIndex] = count;
     }
 
     public void addTiles(List<Tile> newTiles) {
-        tiles.addAll(newTiles);
+        for (Tile tile : newTiles) {
+            int colorIndex = tile.getColor().ordinal();
+            setCount(colorIndex, counts[colorIndex] + 1);
+        }
     }
 
-    public List<Tile> takeTiles(TileColor color) {
-        List<Tile> takenTiles = new ArrayList<>();
-        tiles.removeIf(tile -> {
-            if (tile.getColor() == color) {
-                takenTiles.add(tile);
-                return true;
+    public void addTiles(int[] colorCounts) {
+        for (int i = 0; i < counts.length; i++) {
+            if (colorCounts[i] != 0) {
+                setCount(i, counts[i] + colorCounts[i]);
             }
-            return false;
-        });
-        return takenTiles;
+        }
+    }
+
+    public void addTiles(TileColor color, int count) {
+        setCount(color.ordinal(), counts[color.ordinal()] + count);
+    }
+
+    void setCounts(int[] colorCounts) {
+        for (int i = 0; i < counts.length; i++) {
+            setCount(i, colorCounts[i]);
+        }
+    }
+
+    void removeTiles(int[] colorCounts) {
+        for (int i = 0; i < counts.length; i++) {
+            if (colorCounts[i] != 0) {
+                setCount(i, counts[i] - colorCounts[i]);
+            }
+        }
+    }
+
+    public int takeTileCount(TileColor color) {
+        int taken = counts[color.ordinal()];
+        setCount(color.ordinal(), 0);
+        return taken;
+    }
+
+    long zobristHash() {
+        return hash;
+    }
+
+    public List<Tile> takeTiles(TileColor color) {
+        return Factory.tilesOf(color, takeTileCount(color));
     }
 
     public boolean isEmpty() {
-        return tiles.isEmpty();
+        return size == 0;
+    }
+
+    public boolean hasColor(TileColor color) {
+        return counts[color.ordinal()] > 0;
+    }
+
+    public int getTileCount(TileColor color) {
+        return counts[color.ordinal()];
     }
 
     public List<Tile> getTiles() {
-        return new ArrayList<>(tiles); // Return a copy to prevent external modifications
+        List<Tile> tiles = new ArrayList<>(size);
+        for (TileColor color : COLORS) {
+            for (int i = 0; i < counts[color.ordinal()]; i++) {
+                tiles.add(Tile.of(color));
+            }
+        }
+        return tiles;
     }
 
     public int getSize() {
-        return tiles.size();
+        return size;
     }
 
     @Override
     public String toString() {
         return "CentralArea{" +
-                "tiles=" + tiles +
+                "tiles=" + Factory.countsToString(counts) +
                 '}';
     }
-}
\ No newline at end of file
+}
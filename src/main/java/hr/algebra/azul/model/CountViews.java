@@ -0,0 +1,88 @@
+package hr.algebra.azul.model;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Read-only live views over a count-per-color array. Lookups and sizes do not allocate.
+final class CountViews {
+    private static final TileColor[] COLORS = TileColor.values();
+
+    private CountViews() {
+    }
+
+    // Colors with a non-zero count
+    static Map<TileColor, Integer> asMap(int[] counts) {
+        return new AbstractMap<>() {
+            @Override
+            public Integer get(Object key) {
+                return key instanceof TileColor color && counts[color.ordinal()] > 0 ? counts[color.ordinal()] : null;
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return get(key) != null;
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                for (int count : counts) {
+                    if (count > 0) {
+                        size++;
+                    }
+                }
+                return size;
+            }
+
+            @Override
+            public boolean isEmpty() {
+                return size() == 0;
+            }
+
+            // Iteration works on a copy taken when it starts
+            @Override
+            public Set<Entry<TileColor, Integer>> entrySet() {
+                Map<TileColor, Integer> copy = new EnumMap<>(TileColor.class);
+                for (TileColor color : COLORS) {
+                    if (counts[color.ordinal()] > 0) {
+                        copy.put(color, counts[color.ordinal()]);
+                    }
+                }
+                return Collections.unmodifiableMap(copy).entrySet();
+            }
+        };
+    }
+
+    // Tiles grouped by color, as the shared Tile instances
+    static List<Tile> asTileList(int[] counts) {
+        return new AbstractList<>() {
+            @Override
+            public Tile get(int index) {
+                int remaining = index;
+                if (remaining >= 0) {
+                    for (TileColor color : COLORS) {
+                        if (remaining < counts[color.ordinal()]) {
+                            return Tile.of(color);
+                        }
+                        remaining -= counts[color.ordinal()];
+                    }
+                }
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                for (int count : counts) {
+                    size += count;
+                }
+                return size;
+            }
+        };
+    }
+}
@@ -2,56 +2,150 @@ package hr.algebra.azul.model;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class Factory {
     private static final int FACTORY_SIZE = 4;
-    private List<Tile> tiles;
+    private static final TileColor[] COLORS = TileColor.values();
+    private final int[] counts;
+    private final int index;
+    private int size;
+    private long hash;
+    // Counts packed 3 bits per color; equal codes mean interchangeable factories
+    private int contentCode;
 
     public Factory() {
-        this.tiles = new ArrayList<>(FACTORY_SIZE);
+        this(0);
+    }
+
+    Factory(int index) {
+        this.counts = new int[COLORS.length];
+        this.index = index;
+        this.size = 0;
+        this.hash = 0;
+    }
+
+    private void setCount(int colorIndex, int count) {
+        long[] keys = Zobrist.FACTORY[index][colorIndex];
+        hash ^= keys[counts[colorIndex]] ^ keys[count];
+        size += count - counts[colorIndex];
+        contentCode += (count - counts[colorIndex]) << (colorIndex * 3);
+        counts[colorIndex] = count;
     }
 
     public void fillFactory(List<Tile> newTiles) {
         if (newTiles.size() != FACTORY_SIZE) {
             throw new IllegalArgumentException("Factory must be filled with exactly " + FACTORY_SIZE + " tiles");
         }
-        this.tiles.clear();
-        this.tiles.addAll(newTiles);
+        clear();
+        for (Tile tile : newTiles) {
+            int colorIndex = tile.getColor().ordinal();
+            setCount(colorIndex, counts[colorIndex] + 1);
+        }
     }
 
-    public List<Tile> takeTiles(TileColor color) {
-        List<Tile> takenTiles = tiles.stream()
-                .filter(tile -> tile.getColor() == color)
-                .collect(Collectors.toList());
+    public void fillFactory(int[] colorCounts) {
+        int total = 0;
+        for (int count : colorCounts) {
+            total += count;
+        }
+        if (total != FACTORY_SIZE) {
+            throw new IllegalArgumentException("Factory must be filled with exactly " + FACTORY_SIZE + " tiles");
+        }
+        setCounts(colorCounts);
+    }
+
+    public int takeTileCount(TileColor color) {
+        int taken = counts[color.ordinal()];
+        setCount(color.ordinal(), 0);
+        return taken;
+    }
 
-        tiles.removeAll(takenTiles);
+    public List<Tile> takeTiles(TileColor color) {
+        return tilesOf(color, takeTileCount(color));
+    }
 
-        return takenTiles;
+    public void moveRemainingTiles(CentralArea centralArea) {
+        centralArea.addTiles(counts);
+        clear();
     }
 
     public List<Tile> getRemainingTiles() {
-        List<Tile> remainingTiles = new ArrayList<>(tiles);
-        tiles.clear();
+        List<Tile> remainingTiles = getTiles();
+        clear();
         return remainingTiles;
     }
 
+    void setCounts(int[] colorCounts) {
+        for (int i = 0; i < counts.length; i++) {
+            setCount(i, colorCounts[i]);
+        }
+    }
+
+    void clear() {
+        for (int i = 0; i < counts.length; i++) {
+            setCount(i, 0);
+        }
+    }
+
+    long zobristHash() {
+        return hash;
+    }
+
+    int contentCode() {
+        return contentCode;
+    }
+
     public boolean isEmpty() {
-        return tiles.isEmpty();
+        return size == 0;
+    }
+
+    public boolean hasColor(TileColor color) {
+        return counts[color.ordinal()] > 0;
+    }
+
+    public int getTileCount(TileColor color) {
+        return counts[color.ordinal()];
     }
 
     public List<Tile> getTiles() {
-        return new ArrayList<>(tiles); // Return a copy to prevent external modifications
+        List<Tile> tiles = new ArrayList<>(size);
+        for (TileColor color : COLORS) {
+            for (int i = 0; i < counts[color.ordinal()]; i++) {
+                tiles.add(Tile.of(color));
+            }
+        }
+        return tiles;
     }
 
     public int getSize() {
-        return tiles.size();
+        return size;
+    }
+
+    static List<Tile> tilesOf(TileColor color, int count) {
+        List<Tile> tiles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tiles.add(Tile.of(color));
+        }
+        return tiles;
+    }
+
+    static String countsToString(int[] counts) {
+        StringBuilder sb = new StringBuilder("{");
+        for (TileColor color : COLORS) {
+            if (counts[color.ordinal()] > 0) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                sb.append(color).append('=').append(counts[color.ordinal()]);
+            }
+        }
+        return sb.append('}').toString();
     }
 
     @Override
     public String toString() {
         return "Factory{" +
-                "tiles=" + tiles +
+                "tiles=" + countsToString(counts) +
                 '}';
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,11 @@
 package hr.algebra.azul.model;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
 
 public class Game {
     private List<Player> players;
@@ -10,12 +13,29 @@ public class Game {
     private CentralArea centralArea;
     private int currentPlayerIndex;
     private boolean gameEnded;
-    private List<Tile> tileBag;
-    private List<Tile> discardPile;
-    private static final int TILES_PER_COLOR = 20;
+    private TileBag tileBag;
+    private final UndoStack undoStack = new UndoStack();
+    private static final TileColor[] COLORS = TileColor.values();
+    private final int[] scratchCounts = new int[COLORS.length];
+    private final int[] scratchDiscard = new int[COLORS.length];
+    // The bag and discard pile as endRound left them for fillFactories
+    private final int[] refillBag = new int[COLORS.length];
+    private final int[] refillDiscard = new int[COLORS.length];
     private static final int FACTORY_SIZE = 4;
+    private static final int MOVE_RECORD = 1;
+    private static final int ROUND_END_RECORD = 2;
+    // Created on first subscription so games nobody watches build no events
+    private volatile SubmissionPublisher<GameEvent> events;
 
     public Game(int numberOfPlayers) {
+        this(numberOfPlayers, new SplittableRandom());
+    }
+
+    public Game(int numberOfPlayers, long seed) {
+        this(numberOfPlayers, new SplittableRandom(seed));
+    }
+
+    public Game(int numberOfPlayers, SplittableRandom random) {
         if (numberOfPlayers < 2 || numberOfPlayers > 4) {
             throw new IllegalArgumentException("Number of players must be between 2 and 4");
         }
@@ -24,14 +44,13 @@ public class Game {
         centralArea = new CentralArea();
         currentPlayerIndex = 0;
         gameEnded = false;
-        initializeTileBag();
-        discardPile = new ArrayList<>();
+        tileBag = new TileBag(random);
     }
 
     private void initializePlayers(int numberOfPlayers) {
         players = new ArrayList<>();
         for (int i = 0; i < numberOfPlayers; i++) {
-            players.add(new Player("Player " + (i + 1)));
+            players.add(new Player("Player " + (i + 1), i));
         }
     }
 
@@ -39,49 +58,30 @@ public class Game {
         factories = new ArrayList<>();
         int numberOfFactories = numberOfPlayers * 2 + 1;
         for (int i = 0; i < numberOfFactories; i++) {
-            factories.add(new Factory());
-        }
-    }
-
-    private void initializeTileBag() {
-        tileBag = new ArrayList<>();
-        for (TileColor color : TileColor.values()) {
-            for (int i = 0; i < TILES_PER_COLOR; i++) {
-                tileBag.add(new Tile(color));
-            }
+            factories.add(new Factory(i));
         }
     }
 
     public void startGame() {
-        shuffleTileBag();
         fillFactories();
     }
 
-    private void shuffleTileBag() {
-        Collections.shuffle(tileBag);
-    }
-
     public void fillFactories() {
+        int[] factoryTiles = new int[COLORS.length];
         for (Factory factory : factories) {
-            List<Tile> factoryTiles = new ArrayList<>();
-            for (int i = 0; i < 4; i++) {  // Each factory needs 4 tiles
-                if (tileBag.isEmpty()) {
-                    refillTileBag();
-                }
-                if (!tileBag.isEmpty()) {
-                    factoryTiles.add(tileBag.remove(tileBag.size() - 1));
-                }
-            }
-            if (factoryTiles.size() == 4) {  // Only fill if we have all 4 tiles
+            Arrays.fill(factoryTiles, 0);
+            int drawn = tileBag.draw(factoryTiles, FACTORY_SIZE);
+            if (drawn == FACTORY_SIZE) {  // Only fill if we have all 4 tiles
                 factory.fillFactory(factoryTiles);
+            } else {
+                tileBag.returnToBag(factoryTiles);
+                return;
             }
         }
     }
 
     public void refillTileBag() {
-        tileBag.addAll(discardPile);
-        discardPile.clear();
-        shuffleTileBag();
+        tileBag.refill();
     }
 
     public boolean takeTurn(Player player, Factory factory, TileColor color, int patternLineIndex) {
@@ -93,20 +93,27 @@ public class Game {
             return false;
         }
 
-        List<Tile> takenTiles;
+        int takenCount;
 
         if (factory == null) {
-            takenTiles = centralArea.takeTiles(color);
+            takenCount = centralArea.takeTileCount(color);
         } else {
-            takenTiles = factory.takeTiles(color);
-            centralArea.addTiles(factory.getRemainingTiles());
+            if (!factory.hasColor(color)) {
+                return false;
+            }
+            takenCount = factory.takeTileCount(color);
+            factory.moveRemainingTiles(centralArea);
         }
 
-        if (takenTiles.isEmpty()) {
+        if (takenCount == 0) {
             return false;
         }
 
-        player.addTilesToHand(takenTiles);
+        player.addTilesToHand(color, takenCount);
+        if (hasEventSubscribers()) {
+            publish(new GameEvent.TilesTaken(currentPlayerIndex,
+                    factory == null ? Move.CENTER : factories.indexOf(factory), color, takenCount));
+        }
         return true;
     }
 
@@ -115,15 +122,236 @@ public class Game {
             return false;
         }
 
+        int inHand = player.getHandCount(color);
+        int lineBefore = patternLineIndex >= 0 && patternLineIndex < 5
+                ? player.getPatternLines().getLineCount(patternLineIndex) : 0;
+        int floorBefore = player.getNegativeLineCount();
+
         boolean placed = player.placeTilesFromHand(color, patternLineIndex);
 
-        if (placed && player.getHand().isEmpty()) {
+        if (placed && hasEventSubscribers()) {
+            int onLine = patternLineIndex >= 0 && patternLineIndex < 5
+                    ? player.getPatternLines().getLineCount(patternLineIndex) - lineBefore : 0;
+            publishPlacement(color, patternLineIndex, onLine, inHand - onLine,
+                    inHand - onLine - (player.getNegativeLineCount() - floorBefore));
+        }
+
+        if (placed && player.isHandEmpty()) {
             endTurn();
         }
 
         return placed;
     }
 
+    // Plays a packed Move for the current player: take, place, overflow to floor and, if the
+    // round is over, wall tiling and refill. Every step is recorded so undoMove can reverse it.
+    public boolean applyMove(int move) {
+        if (gameEnded || Move.kind(move) != Move.KIND_MOVE) {
+            return false;
+        }
+
+        Player player = getCurrentPlayer();
+        TileColor color = Move.color(move);
+        int line = Move.line(move);
+        if (line != Move.FLOOR && !player.canAddTilesToPatternLine(color, line)) {
+            return false;
+        }
+
+        int taken;
+        int packedRemainder = 0;
+        if (Move.isFromCenter(move)) {
+            taken = centralArea.takeTileCount(color);
+        } else {
+            int source = Move.source(move);
+            if (source >= factories.size() || !factories.get(source).hasColor(color)) {
+                return false;
+            }
+            Factory factory = factories.get(source);
+            taken = factory.takeTileCount(color);
+            for (TileColor remaining : COLORS) {
+                packedRemainder |= factory.getTileCount(remaining) << (remaining.ordinal() * 3);
+            }
+            factory.moveRemainingTiles(centralArea);
+        }
+        if (taken == 0) {
+            return false;
+        }
+
+        int overflow = line == Move.FLOOR ? taken : player.getPatternLines().addTiles(color, taken, line);
+        int excess = player.addTilesToNegativeLine(color, overflow);
+        tileBag.discard(color, excess);
+
+        undoStack.push(move);
+        undoStack.push(currentPlayerIndex);
+        undoStack.push(packedRemainder);
+        undoStack.push(taken | (taken - overflow) << 8 | (overflow - excess) << 12 | excess << 16);
+        undoStack.push(MOVE_RECORD);
+
+        if (hasEventSubscribers()) {
+            publish(new GameEvent.TilesTaken(currentPlayerIndex, Move.source(move), color, taken));
+            publishPlacement(color, line, taken - overflow, overflow, excess);
+        }
+
+        if (isRoundEnd()) {
+            pushRoundEndRecord();
+            endRound();
+            pushRefillCounts();
+        } else {
+            nextPlayer();
+        }
+        return true;
+    }
+
+    public boolean undoMove() {
+        if (undoStack.isEmpty()) {
+            return false;
+        }
+        if (undoStack.peek() == ROUND_END_RECORD) {
+            popRoundEndRecord();
+        }
+
+        undoStack.pop();
+        int counts = undoStack.pop();
+        int packedRemainder = undoStack.pop();
+        currentPlayerIndex = undoStack.pop();
+        int move = undoStack.pop();
+
+        int taken = counts & 0xFF;
+        int lineAdded = (counts >>> 8) & 0xF;
+        int floorAdded = (counts >>> 12) & 0xF;
+        int excess = counts >>> 16;
+        TileColor color = Move.color(move);
+        Player player = getCurrentPlayer();
+
+        tileBag.discard(color, -excess);
+        player.removeFromNegativeLine(color, floorAdded);
+        if (lineAdded > 0) {
+            player.getPatternLines().removeTiles(Move.line(move), lineAdded);
+        }
+
+        if (Move.isFromCenter(move)) {
+            centralArea.addTiles(color, taken);
+        } else {
+            for (int i = 0; i < scratchCounts.length; i++) {
+                scratchCounts[i] = (packedRemainder >>> (i * 3)) & 0x7;
+            }
+            centralArea.removeTiles(scratchCounts);
+            scratchCounts[color.ordinal()] += taken;
+            factories.get(Move.source(move)).fillFactory(scratchCounts);
+        }
+        gameEnded = false;
+        if (hasEventSubscribers()) {
+            publish(new GameEvent.MoveUndone(move));
+        }
+        return true;
+    }
+
+    // Replaces the random refill made by the move that just ended the round with a chosen outcome,
+    // for searches that branch over refills. Undoing that move still restores the previous round.
+    // The outcome must be one drawn from the bag and discard pile of copyRefillCounts.
+    public boolean applyRefill(RefillDistribution.Outcome outcome) {
+        if (gameEnded || !lastMoveEndedRound()) {
+            return false;
+        }
+        int[] codes = outcome.factoryCodes();
+        copyRefillCounts(scratchCounts, scratchDiscard);
+        for (int code : codes) {
+            int[] drawn = RefillDistribution.decode(code);
+            for (int c = 0; c < scratchCounts.length; c++) {
+                scratchCounts[c] -= drawn[c];
+            }
+        }
+        for (int c = 0; c < scratchCounts.length; c++) {
+            if (scratchCounts[c] + scratchDiscard[c] != outcome.bag()[c] + outcome.discard()[c]) {
+                throw new IllegalArgumentException("Refill outcome does not come from the bag this round was refilled from");
+            }
+        }
+        for (int i = 0; i < factories.size(); i++) {
+            if (i < codes.length) {
+                factories.get(i).setCounts(RefillDistribution.decode(codes[i]));
+            } else {
+                factories.get(i).clear();
+            }
+        }
+        tileBag.setCounts(outcome.bag(), outcome.discard());
+        return true;
+    }
+
+    // Copies the bag and discard counts the refill after the last move was drawn from, before any
+    // tiles were dealt; returns false unless that move ended the round
+    public boolean copyRefillCounts(int[] bag, int[] discard) {
+        if (!lastMoveEndedRound()) {
+            return false;
+        }
+        for (int i = 0; i < COLORS.length; i++) {
+            int below = 1 + 2 * (COLORS.length - 1 - i);
+            discard[i] = undoStack.peek(below);
+            bag[i] = undoStack.peek(below + 1);
+        }
+        return true;
+    }
+
+    public boolean canUndo() {
+        return !undoStack.isEmpty();
+    }
+
+    // True right after an applyMove that emptied the last source and triggered wall tiling and refill
+    public boolean lastMoveEndedRound() {
+        return !undoStack.isEmpty() && undoStack.peek() == ROUND_END_RECORD;
+    }
+
+    public void clearUndoHistory() {
+        undoStack.clear();
+    }
+
+    // Factories and the center are always empty when a round ends, so only players and the bag are saved
+    private void pushRoundEndRecord() {
+        for (Player player : players) {
+            undoStack.push(player.getWall().getMask());
+            undoStack.push(player.getScore());
+            undoStack.push(player.getPatternLines().pack());
+            undoStack.push(player.packNegativeLine());
+        }
+        tileBag.copyCounts(scratchCounts, scratchDiscard);
+        for (int i = 0; i < scratchCounts.length; i++) {
+            undoStack.push(scratchCounts[i]);
+            undoStack.push(scratchDiscard[i]);
+        }
+        undoStack.push(gameEnded ? 1 : 0);
+    }
+
+    // Closes the round end record once endRound has run, so a refill can be replayed from these counts
+    private void pushRefillCounts() {
+        for (int i = 0; i < refillBag.length; i++) {
+            undoStack.push(refillBag[i]);
+            undoStack.push(refillDiscard[i]);
+        }
+        undoStack.push(ROUND_END_RECORD);
+    }
+
+    private void popRoundEndRecord() {
+        undoStack.pop();
+        for (int i = 0; i < refillBag.length * 2; i++) {
+            undoStack.pop();
+        }
+        gameEnded = undoStack.pop() == 1;
+        for (int i = scratchCounts.length - 1; i >= 0; i--) {
+            scratchDiscard[i] = undoStack.pop();
+            scratchCounts[i] = undoStack.pop();
+        }
+        tileBag.setCounts(scratchCounts, scratchDiscard);
+        for (int p = players.size() - 1; p >= 0; p--) {
+            Player player = players.get(p);
+            player.unpackNegativeLine(undoStack.pop());
+            player.getPatternLines().unpack(undoStack.pop());
+            player.setScore(undoStack.pop());
+            player.getWall().setMask(undoStack.pop());
+        }
+        for (Factory factory : factories) {
+            factory.clear();
+        }
+    }
+
     public void endTurn() {
         if (isRoundEnd()) {
             endRound();
@@ -133,23 +361,47 @@ public class Game {
     }
 
     public boolean isRoundEnd() {
-        return factories.stream().allMatch(Factory::isEmpty) && centralArea.isEmpty();
+        if (!centralArea.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < factories.size(); i++) {
+            if (!factories.get(i).isEmpty()) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public void endRound() {
-        for (Player player : players) {
-            player.transferTilesToWall();
+        boolean publishing = hasEventSubscribers();
+        for (int p = 0; p < players.size(); p++) {
+            Player player = players.get(p);
+            int maskBefore = player.getWall().getMask();
+            player.transferTilesToWall(tileBag);
+            if (publishing) {
+                publishWallTiles(p, maskBefore, player.getWall().getMask());
+            }
             int negativeLinePenalty = player.calculateNegativeLinePenalty();
             player.setScore(player.getScore() + negativeLinePenalty);
-            discardPile.addAll(player.clearNegativeLine());
+            player.discardNegativeLine(tileBag);
             player.startNewTurn();
+        }
 
-            // Check for game end after each player's tiles are transferred
-            if (player.hasCompletedRow()) {
-                gameEnded = true;
-                calculateFinalScores();
-                return;  // Exit immediately if game has ended
+        if (publishing) {
+            publish(new GameEvent.RoundEnded(scores()));
+        }
+
+        // What fillFactories draws from, kept in the round end record so a refill can be replayed
+        tileBag.copyCounts(refillBag, refillDiscard);
+
+        // Every player tiles their wall before the game end check
+        if (isGameEnd()) {
+            gameEnded = true;
+            calculateFinalScores();
+            if (publishing) {
+                publish(new GameEvent.GameEnded(scores()));
             }
+            return;
         }
 
         fillFactories();
@@ -157,7 +409,12 @@ public class Game {
     }
 
     private boolean isGameEnd() {
-        return players.stream().anyMatch(Player::hasCompletedRow);
+        for (int i = 0; i < players.size(); i++) {
+            if (players.get(i).hasCompletedRow()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private void calculateFinalScores() {
@@ -168,11 +425,94 @@ public class Game {
         }
     }
 
+    // Events are delivered asynchronously, in order, to each subscriber. When a subscriber's buffer
+    // is full the game thread waits for it, so subscribers must not block on the game thread.
+    public synchronized void subscribe(Flow.Subscriber<? super GameEvent> subscriber) {
+        if (events == null) {
+            events = new SubmissionPublisher<>();
+        }
+        events.subscribe(subscriber);
+    }
+
+    // Completes every subscription; a later subscribe starts a new stream
+    public synchronized void closeEvents() {
+        if (events != null) {
+            events.close();
+            events = null;
+        }
+    }
+
+    private boolean hasEventSubscribers() {
+        SubmissionPublisher<GameEvent> publisher = events;
+        return publisher != null && publisher.hasSubscribers();
+    }
+
+    private void publish(GameEvent event) {
+        SubmissionPublisher<GameEvent> publisher = events;
+        if (publisher != null) {
+            publisher.submit(event);
+        }
+    }
+
+    private void publishPlacement(TileColor color, int line, int onLine, int toFloor, int discarded) {
+        if (onLine > 0) {
+            publish(new GameEvent.TilesPlaced(currentPlayerIndex, color, line, onLine));
+        }
+        if (toFloor > 0) {
+            publish(new GameEvent.FloorOverflow(currentPlayerIndex, color, toFloor, discarded));
+        }
+    }
+
+    // Walls are tiled top row first, so replaying the new cells in bit order reproduces each score
+    private void publishWallTiles(int player, int maskBefore, int maskAfter) {
+        int mask = maskBefore;
+        for (int added = maskAfter & ~maskBefore; added != 0; added &= added - 1) {
+            int cell = Integer.numberOfTrailingZeros(added);
+            int row = cell / WallMask.SIZE;
+            int col = cell % WallMask.SIZE;
+            mask |= 1 << cell;
+            publish(new GameEvent.WallTileScored(player, row, col,
+                    COLORS[WallMask.colorOrdinalAt(cell)], WallMask.placementScore(mask, row, col)));
+        }
+    }
+
+    private List<Integer> scores() {
+        List<Integer> scores = new ArrayList<>(players.size());
+        for (Player player : players) {
+            scores.add(player.getScore());
+        }
+        return scores;
+    }
+
     private void nextPlayer() {
         currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
         getCurrentPlayer().startNewTurn();
     }
 
+    // 64-bit position key: factories, center, each player's wall, pattern lines, floor and hand, and the player to move
+    public long getZobristHash() {
+        long hash = centralArea.zobristHash() ^ Zobrist.CURRENT_PLAYER[currentPlayerIndex];
+        for (int i = 0; i < factories.size(); i++) {
+            hash ^= factories.get(i).zobristHash();
+        }
+        for (int i = 0; i < players.size(); i++) {
+            hash ^= players.get(i).zobristHash();
+        }
+        return hash;
+    }
+
+    public int getCurrentPlayerIndex() {
+        return currentPlayerIndex;
+    }
+
+    void setCurrentPlayerIndex(int currentPlayerIndex) {
+        this.currentPlayerIndex = currentPlayerIndex;
+    }
+
+    void setGameEnded(boolean gameEnded) {
+        this.gameEnded = gameEnded;
+    }
+
     public Player getCurrentPlayer() {
         return players.get(currentPlayerIndex);
     }
@@ -181,6 +521,10 @@ public class Game {
         return factories;
     }
 
+    public TileBag getTileBag() {
+        return tileBag;
+    }
+
     public CentralArea getCentralArea() {
         return centralArea;
     }
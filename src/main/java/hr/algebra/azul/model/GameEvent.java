@@ -0,0 +1,37 @@
+package hr.algebra.azul.model;
+
+import java.util.List;
+
+// Fine-grained changes emitted by Game. Players are identified by seat index, sources by factory
+// index or Move.CENTER.
+public sealed interface GameEvent {
+
+    record TilesTaken(int player, int source, TileColor color, int count) implements GameEvent {
+    }
+
+    record TilesPlaced(int player, TileColor color, int line, int count) implements GameEvent {
+    }
+
+    // Tiles that went to the floor line; discarded is the part that did not fit on it
+    record FloorOverflow(int player, TileColor color, int count, int discarded) implements GameEvent {
+    }
+
+    record WallTileScored(int player, int row, int col, TileColor color, int points) implements GameEvent {
+    }
+
+    // Scores after wall tiling and floor penalties
+    record RoundEnded(List<Integer> scores) implements GameEvent {
+        public RoundEnded {
+            scores = List.copyOf(scores);
+        }
+    }
+
+    record GameEnded(List<Integer> finalScores) implements GameEvent {
+        public GameEnded {
+            finalScores = List.copyOf(finalScores);
+        }
+    }
+
+    record MoveUndone(int move) implements GameEvent {
+    }
+}
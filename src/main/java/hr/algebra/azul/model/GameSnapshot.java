@@ -0,0 +1,219 @@
+package hr.algebra.azul.model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Immutable position packed into 7 + 2 * players longs. Copying or hashing a position is an array operation.
+//   word 0: player count (3 bits), factory count (4), current player (2), game ended (1)
+//   words 1-3: center, bag and discard counts, 7 bits per color
+//   words 4-6: factories, 4 per word, 3 bits per color
+//   per player: wall mask (25) | floor colors (15) | score (16, signed), then pattern lines (30) | hand (25)
+public final class GameSnapshot {
+    private static final TileColor[] COLORS = TileColor.values();
+    private static final int HEADER = 0;
+    private static final int CENTER = 1;
+    private static final int BAG = 2;
+    private static final int DISCARD = 3;
+    private static final int FACTORIES = 4;
+    private static final int FACTORIES_PER_WORD = 4;
+    private static final int PLAYERS = 7;
+    private static final int POOL_BITS = 7;
+    private static final int FACTORY_BITS = 3;
+
+    private final long[] words;
+
+    private GameSnapshot(long[] words) {
+        this.words = words;
+    }
+
+    public static GameSnapshot of(Game game) {
+        int playerCount = game.getPlayers().size();
+        long[] words = new long[PLAYERS + 2 * playerCount];
+
+        words[HEADER] = playerCount
+                | (long) game.getFactories().size() << 3
+                | (long) game.getCurrentPlayerIndex() << 7
+                | (game.isGameEnded() ? 1L << 9 : 0L);
+
+        TileBag tileBag = game.getTileBag();
+        for (TileColor color : COLORS) {
+            int shift = color.ordinal() * POOL_BITS;
+            words[CENTER] |= (long) game.getCentralArea().getTileCount(color) << shift;
+            words[BAG] |= (long) tileBag.getBagCount(color) << shift;
+            words[DISCARD] |= (long) tileBag.getDiscardCount(color) << shift;
+        }
+
+        for (int f = 0; f < game.getFactories().size(); f++) {
+            Factory factory = game.getFactories().get(f);
+            long packed = 0;
+            for (TileColor color : COLORS) {
+                packed |= (long) factory.getTileCount(color) << (color.ordinal() * FACTORY_BITS);
+            }
+            words[FACTORIES + f / FACTORIES_PER_WORD] |= packed << (f % FACTORIES_PER_WORD * 15);
+        }
+
+        for (int p = 0; p < playerCount; p++) {
+            Player player = game.getPlayers().get(p);
+            words[PLAYERS + 2 * p] = player.getWall().getMask()
+                    | (long) player.packNegativeLine() << 25
+                    | (long) (player.getScore() & 0xFFFF) << 40;
+            words[PLAYERS + 2 * p + 1] = player.getPatternLines().pack()
+                    | (long) player.packHand() << 30;
+        }
+        return new GameSnapshot(words);
+    }
+
+    public static GameSnapshot fromLongArray(long[] words) {
+        if (words.length < PLAYERS || words.length != PLAYERS + 2 * (int) (words[HEADER] & 0x7)) {
+            throw new IllegalArgumentException("Not a packed game snapshot");
+        }
+        return new GameSnapshot(words.clone());
+    }
+
+    public long[] toLongArray() {
+        return words.clone();
+    }
+
+    int wordCount() {
+        return words.length;
+    }
+
+    long word(int index) {
+        return words[index];
+    }
+
+    static GameSnapshot wrap(long[] words) {
+        return new GameSnapshot(words);
+    }
+
+    public Game toGame() {
+        return toGame(new SplittableRandom());
+    }
+
+    public Game toGame(SplittableRandom random) {
+        Game game = new Game(getPlayerCount(), random);
+        applyTo(game);
+        return game;
+    }
+
+    // Overwrites a game with the same player count; player names are kept and undo history is dropped
+    public void applyTo(Game game) {
+        if (game.getPlayers().size() != getPlayerCount()) {
+            throw new IllegalArgumentException("Snapshot is for " + getPlayerCount() + " players");
+        }
+
+        int[] counts = new int[COLORS.length];
+        int[] discard = new int[COLORS.length];
+        for (int f = 0; f < getFactoryCount(); f++) {
+            for (TileColor color : COLORS) {
+                counts[color.ordinal()] = getFactoryTileCount(f, color);
+            }
+            game.getFactories().get(f).setCounts(counts);
+        }
+        for (TileColor color : COLORS) {
+            counts[color.ordinal()] = getCenterCount(color);
+        }
+        game.getCentralArea().setCounts(counts);
+        for (TileColor color : COLORS) {
+            counts[color.ordinal()] = getBagCount(color);
+            discard[color.ordinal()] = getDiscardCount(color);
+        }
+        game.getTileBag().setCounts(counts, discard);
+
+        for (int p = 0; p < getPlayerCount(); p++) {
+            Player player = game.getPlayers().get(p);
+            long stateWord = words[PLAYERS + 2 * p];
+            long linesWord = words[PLAYERS + 2 * p + 1];
+            player.getWall().setMask((int) (stateWord & WallMask.FULL));
+            player.unpackNegativeLine((int) (stateWord >>> 25) & 0x7FFF);
+            player.setScore(getScore(p));
+            player.getPatternLines().unpack((int) (linesWord & 0x3FFFFFFF));
+            player.unpackHand((int) (linesWord >>> 30) & 0x1FFFFFF);
+        }
+
+        game.setCurrentPlayerIndex(getCurrentPlayerIndex());
+        game.setGameEnded(isGameEnded());
+        game.clearUndoHistory();
+    }
+
+    public int getPlayerCount() {
+        return (int) (words[HEADER] & 0x7);
+    }
+
+    public int getFactoryCount() {
+        return (int) (words[HEADER] >>> 3) & 0xF;
+    }
+
+    public int getCurrentPlayerIndex() {
+        return (int) (words[HEADER] >>> 7) & 0x3;
+    }
+
+    public boolean isGameEnded() {
+        return (words[HEADER] & (1L << 9)) != 0;
+    }
+
+    public int getCenterCount(TileColor color) {
+        return poolCount(CENTER, color);
+    }
+
+    public int getBagCount(TileColor color) {
+        return poolCount(BAG, color);
+    }
+
+    public int getDiscardCount(TileColor color) {
+        return poolCount(DISCARD, color);
+    }
+
+    private int poolCount(int word, TileColor color) {
+        return (int) (words[word] >>> (color.ordinal() * POOL_BITS)) & 0x7F;
+    }
+
+    public int getFactoryTileCount(int factory, TileColor color) {
+        long packed = words[FACTORIES + factory / FACTORIES_PER_WORD] >>> (factory % FACTORIES_PER_WORD * 15);
+        return (int) (packed >>> (color.ordinal() * FACTORY_BITS)) & 0x7;
+    }
+
+    public int getWallMask(int player) {
+        return (int) (words[PLAYERS + 2 * player] & WallMask.FULL);
+    }
+
+    public int getFloorCount(int player, TileColor color) {
+        return (int) (words[PLAYERS + 2 * player] >>> (25 + color.ordinal() * 3)) & 0x7;
+    }
+
+    public int getScore(int player) {
+        return (short) (words[PLAYERS + 2 * player] >>> 40);
+    }
+
+    public TileColor getPatternLineColor(int player, int line) {
+        int code = patternLineCode(player, line);
+        return code == 0 ? null : COLORS[(code >>> 3) - 1];
+    }
+
+    public int getPatternLineCount(int player, int line) {
+        return patternLineCode(player, line) & 0x7;
+    }
+
+    private int patternLineCode(int player, int line) {
+        return (int) (words[PLAYERS + 2 * player + 1] >>> (line * 6)) & 0x3F;
+    }
+
+    public int getHandCount(int player, TileColor color) {
+        return (int) (words[PLAYERS + 2 * player + 1] >>> (30 + color.ordinal() * 5)) & 0x1F;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof GameSnapshot other && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        return "GameSnapshot" + Arrays.toString(words);
+    }
+}
@@ -0,0 +1,122 @@
+package hr.algebra.azul.model;
+
+// Packed move code shared by the engine, the network protocol and move journals. Fits in 16 bits.
+// Layout: bits 0-2 line (0-4, 5 = floor), bits 3-5 color ordinal, bits 6-9 source (0-8, 15 = center),
+// bits 10-11 kind. KIND_MOVE is a complete turn; the other kinds mirror the two-step network actions.
+public final class Move {
+    public static final int CENTER = -1;
+    public static final int FLOOR = 5;
+    public static final int NONE = 0xFFFF;
+
+    public static final int KIND_MOVE = 0;
+    public static final int KIND_SELECT = 1;
+    public static final int KIND_PLACE = 2;
+    public static final int KIND_END_TURN = 3;
+
+    private static final int LINE_BITS = 0x7;
+    private static final int COLOR_SHIFT = 3;
+    private static final int COLOR_BITS = 0x7;
+    private static final int SOURCE_SHIFT = 6;
+    private static final int SOURCE_BITS = 0xF;
+    private static final int CENTER_CODE = 0xF;
+    private static final int KIND_SHIFT = 10;
+    private static final int KIND_BITS = 0x3;
+    private static final TileColor[] COLORS = TileColor.values();
+
+    private Move() {
+    }
+
+    public static int of(int source, TileColor color, int line) {
+        return of(source, color.ordinal(), line);
+    }
+
+    // source is a factory index below 15 or CENTER; line is a pattern line, FLOOR, or -1 for the floor
+    // as Player.placeTilesFromHand takes it. Anything else would be packed into a different move.
+    public static int of(int source, int colorOrdinal, int line) {
+        if (source < CENTER || source >= CENTER_CODE) {
+            throw new IllegalArgumentException("Move source " + source + " out of range " + CENTER + ".." + (CENTER_CODE - 1));
+        }
+        if (colorOrdinal < 0 || colorOrdinal >= COLORS.length) {
+            throw new IllegalArgumentException("Move color " + colorOrdinal + " out of range 0.." + (COLORS.length - 1));
+        }
+        if (line < -1 || line > FLOOR) {
+            throw new IllegalArgumentException("Move line " + line + " out of range -1.." + FLOOR);
+        }
+        int sourceCode = source == CENTER ? CENTER_CODE : source;
+        int lineCode = line < 0 ? FLOOR : line;
+        return (sourceCode << SOURCE_SHIFT) | (colorOrdinal << COLOR_SHIFT) | lineCode;
+    }
+
+    public static int select(int source, TileColor color) {
+        return of(source, color, 0) | (KIND_SELECT << KIND_SHIFT);
+    }
+
+    public static int place(TileColor color, int line) {
+        return of(0, color, line) | (KIND_PLACE << KIND_SHIFT);
+    }
+
+    public static int endTurn() {
+        return KIND_END_TURN << KIND_SHIFT;
+    }
+
+    // Joins a select code and a place code into one complete move
+    public static int combine(int select, int place) {
+        return of(source(select), colorOrdinal(select), line(place));
+    }
+
+    public static int selectPart(int move) {
+        return (move & ~(LINE_BITS | (KIND_BITS << KIND_SHIFT))) | (KIND_SELECT << KIND_SHIFT);
+    }
+
+    public static int placePart(int move) {
+        return (move & (LINE_BITS | (COLOR_BITS << COLOR_SHIFT))) | (KIND_PLACE << KIND_SHIFT);
+    }
+
+    public static int kind(int move) {
+        return (move >>> KIND_SHIFT) & KIND_BITS;
+    }
+
+    public static short toShort(int move) {
+        return (short) move;
+    }
+
+    public static int fromShort(short code) {
+        return code & 0xFFFF;
+    }
+
+    public static int source(int move) {
+        int sourceCode = (move >>> SOURCE_SHIFT) & SOURCE_BITS;
+        return sourceCode == CENTER_CODE ? CENTER : sourceCode;
+    }
+
+    public static boolean isFromCenter(int move) {
+        return ((move >>> SOURCE_SHIFT) & SOURCE_BITS) == CENTER_CODE;
+    }
+
+    public static int colorOrdinal(int move) {
+        return (move >>> COLOR_SHIFT) & COLOR_BITS;
+    }
+
+    public static TileColor color(int move) {
+        return COLORS[colorOrdinal(move)];
+    }
+
+    public static int line(int move) {
+        return move & LINE_BITS;
+    }
+
+    public static boolean isToFloor(int move) {
+        return line(move) == FLOOR;
+    }
+
+    public static String toString(int move) {
+        String from = isFromCenter(move) ? "center" : "factory " + source(move);
+        String to = isToFloor(move) ? "floor" : "line " + line(move);
+        return switch (kind(move)) {
+            case KIND_SELECT -> "select " + from + " " + color(move);
+            case KIND_PLACE -> "place " + color(move) + " -> " + to;
+            case KIND_END_TURN -> "end turn";
+            default -> from + " " + color(move) + " -> " + to;
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package hr.algebra.azul.model;
+
+// Writes the current player's legal moves as packed Move ints into a caller-owned buffer.
+public final class MoveGenerator {
+    // 9 factories + center, 5 colors, 5 pattern lines + floor
+    public static final int MAX_MOVES = 10 * 5 * 6;
+
+    private static final TileColor[] COLORS = TileColor.values();
+
+    private MoveGenerator() {
+    }
+
+    public static int[] newBuffer() {
+        return new int[MAX_MOVES];
+    }
+
+    public static int generate(Game game, int[] buffer) {
+        if (game.isGameEnded()) {
+            return 0;
+        }
+
+        Player player = game.getCurrentPlayer();
+        CentralArea centralArea = game.getCentralArea();
+        int factoryCount = game.getFactories().size();
+        int count = 0;
+
+        for (TileColor color : COLORS) {
+            int lineMask = targetLines(player, color);
+            for (int source = 0; source < factoryCount; source++) {
+                if (game.getFactories().get(source).hasColor(color)) {
+                    count = emit(buffer, count, source, color, lineMask);
+                }
+            }
+            if (centralArea.hasColor(color)) {
+                count = emit(buffer, count, Move.CENTER, color, lineMask);
+            }
+        }
+        return count;
+    }
+
+    public static boolean isLegal(Game game, int move) {
+        if (game.isGameEnded() || Move.kind(move) != Move.KIND_MOVE) {
+            return false;
+        }
+        TileColor color = Move.color(move);
+        int source = Move.source(move);
+        boolean present = Move.isFromCenter(move)
+                ? game.getCentralArea().hasColor(color)
+                : source < game.getFactories().size() && game.getFactories().get(source).hasColor(color);
+        return present && (Move.isToFloor(move) || game.getCurrentPlayer().canAddTilesToPatternLine(color, Move.line(move)));
+    }
+
+    // Bit i set when pattern line i accepts the color; the floor always does
+    private static int targetLines(Player player, TileColor color) {
+        int mask = 1 << Move.FLOOR;
+        for (int line = 0; line < 5; line++) {
+            if (player.canAddTilesToPatternLine(color, line)) {
+                mask |= 1 << line;
+            }
+        }
+        return mask;
+    }
+
+    private static int emit(int[] buffer, int count, int source, TileColor color, int lineMask) {
+        for (int line = 0; line <= Move.FLOOR; line++) {
+            if ((lineMask & (1 << line)) != 0) {
+                buffer[count++] = Move.of(source, color, line);
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,75 @@
+package hr.algebra.azul.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+// Append-only log of 16-bit Move codes, two bytes per entry when written out
+public class MoveJournal {
+    private short[] codes;
+    private int size;
+
+    public MoveJournal() {
+        this.codes = new short[64];
+        this.size = 0;
+    }
+
+    public void append(int move) {
+        if (size == codes.length) {
+            codes = Arrays.copyOf(codes, size * 2);
+        }
+        codes[size++] = Move.toShort(move);
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Journal index " + index + " out of range for size " + size);
+        }
+        return Move.fromShort(codes[index]);
+    }
+
+    public int removeLast() {
+        return size == 0 ? Move.NONE : Move.fromShort(codes[--size]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeShort(codes[i]);
+        }
+    }
+
+    public static MoveJournal readFrom(DataInput in) throws IOException {
+        MoveJournal journal = new MoveJournal();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            journal.append(Move.fromShort(in.readShort()));
+        }
+        return journal;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("MoveJournal{");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(Move.toString(get(i)));
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -1,48 +1,123 @@
 package hr.algebra.azul.model;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class PatternLines {
-    private List<List<Tile>> lines;
+    // A pattern line only ever holds one color, so each line is a color and a count
+    private final TileColor[] lineColors;
+    private final int[] lineCounts;
+    private final int seat;
+    private long hash;
 
     public PatternLines() {
-        lines = new ArrayList<>();
-        for (int i = 0; i < 5; i++) {
-            lines.add(new ArrayList<>());
-        }
+        this(0);
+    }
+
+    PatternLines(int seat) {
+        this.seat = seat;
+        lineColors = new TileColor[5];
+        lineCounts = new int[5];
+        hash = 0;
+    }
+
+    private long key(int lineIndex) {
+        TileColor color = lineColors[lineIndex];
+        return color == null ? 0 : Zobrist.PATTERN_LINE[seat][lineIndex][color.ordinal()][lineCounts[lineIndex]];
+    }
+
+    void setLine(int lineIndex, TileColor color, int count) {
+        hash ^= key(lineIndex);
+        lineColors[lineIndex] = count == 0 ? null : color;
+        lineCounts[lineIndex] = count;
+        hash ^= key(lineIndex);
     }
 
     public boolean canAddTiles(TileColor color, int lineIndex) {
-        List<Tile> line = lines.get(lineIndex);
-        return line.size() < lineIndex + 1 && (line.isEmpty() || line.get(0).getColor() == color);
+        int count = lineCounts[lineIndex];
+        return count < lineIndex + 1 && (count == 0 || lineColors[lineIndex] == color);
     }
 
     public List<Tile> addTiles(List<Tile> tiles, int lineIndex) {
-        List<Tile> line = lines.get(lineIndex);
         List<Tile> overflow = new ArrayList<>();
-        TileColor lineColor = line.isEmpty() ? tiles.get(0).getColor() : line.get(0).getColor();
+        if (tiles.isEmpty()) {
+            return overflow;
+        }
 
+        TileColor lineColor = lineCounts[lineIndex] == 0 ? tiles.get(0).getColor() : lineColors[lineIndex];
+        int count = lineCounts[lineIndex];
         for (Tile tile : tiles) {
-            if (line.size() < lineIndex + 1 && tile.getColor() == lineColor) {
-                line.add(tile);
+            if (count < lineIndex + 1 && tile.getColor() == lineColor) {
+                count++;
             } else {
                 overflow.add(tile);
             }
         }
+        setLine(lineIndex, lineColor, count);
 
         return overflow;
     }
 
+    // Adds count tiles of one color and returns how many did not fit
+    public int addTiles(TileColor color, int count, int lineIndex) {
+        if (lineCounts[lineIndex] > 0 && lineColors[lineIndex] != color) {
+            return count;
+        }
+        int added = Math.min(count, lineIndex + 1 - lineCounts[lineIndex]);
+        setLine(lineIndex, color, lineCounts[lineIndex] + added);
+        return count - added;
+    }
+
+    void removeTiles(int lineIndex, int count) {
+        setLine(lineIndex, lineColors[lineIndex], lineCounts[lineIndex] - count);
+    }
+
+    // Each line packed into 6 bits: color ordinal + 1 (0 when empty) and tile count, used for undo records
+    int pack() {
+        int packed = 0;
+        for (int i = 0; i < 5; i++) {
+            if (lineCounts[i] > 0) {
+                packed |= (((lineColors[i].ordinal() + 1) << 3) | lineCounts[i]) << (i * 6);
+            }
+        }
+        return packed;
+    }
+
+    void unpack(int packed) {
+        TileColor[] colors = TileColor.values();
+        for (int i = 0; i < 5; i++) {
+            int code = (packed >>> (i * 6)) & 0x3F;
+            if (code == 0) {
+                setLine(i, null, 0);
+            } else {
+                setLine(i, colors[(code >>> 3) - 1], code & 0x7);
+            }
+        }
+    }
+
+    long zobristHash() {
+        return hash;
+    }
+
+    public int getLineCount(int lineIndex) {
+        return lineCounts[lineIndex];
+    }
+
+    public boolean isLineFull(int lineIndex) {
+        return lineCounts[lineIndex] == lineIndex + 1;
+    }
+
+    // Read-only view of a line
     public List<Tile> getLine(int index) {
-        return lines.get(index);
+        int count = lineCounts[index];
+        return count == 0 ? List.of() : Collections.nCopies(count, Tile.of(lineColors[index]));
     }
 
     public void clearLine(int index) {
-        lines.get(index).clear();
+        setLine(index, null, 0);
     }
 
     public TileColor getLineColor(int lineIndex) {
-        List<Tile> line = lines.get(lineIndex);
-        return line.isEmpty() ? null : line.get(0).getColor();
+        return lineColors[lineIndex];
     }
-}
\ No newline at end of file
+}
@@ -7,18 +7,37 @@ public class Player {
     private int score;
     private PatternLines patternLines;
     private Wall wall;
-    private List<Tile> negativeLine;
-    private Map<TileColor, Integer> hand;
+    // Floor tile counts per color; only the number of floor tiles affects the penalty
+    private final int[] negativeLine;
+    private int negativeLineSize;
+    private long negativeLineHash;
+    private final List<Tile> negativeLineView;
+    // Hand tile counts per color
+    private final int[] hand;
+    private int handSize;
+    private long handHash;
+    private final Map<TileColor, Integer> handView;
     private boolean hasSelectedThisTurn;
+    private final int seat;
     private static final int MAX_NEGATIVE_LINE = 7;
+    // Cumulative floor penalty by tile count: -1, -1, -2, -2, -2, -3, -3
+    private static final int[] NEGATIVE_LINE_PENALTIES = {0, -1, -2, -4, -6, -8, -11, -14};
+    private static final TileColor[] COLORS = TileColor.values();
 
     public Player(String name) {
+        this(name, 0);
+    }
+
+    Player(String name, int seat) {
         this.name = name;
+        this.seat = seat;
         this.score = 0;
-        this.patternLines = new PatternLines();
-        this.wall = new Wall();
-        this.negativeLine = new ArrayList<>();
-        this.hand = new EnumMap<>(TileColor.class);
+        this.patternLines = new PatternLines(seat);
+        this.wall = new Wall(seat);
+        this.negativeLine = new int[COLORS.length];
+        this.negativeLineView = Collections.unmodifiableList(CountViews.asTileList(negativeLine));
+        this.hand = new int[COLORS.length];
+        this.handView = Collections.unmodifiableMap(CountViews.asMap(hand));
         this.hasSelectedThisTurn = false;
     }
 
@@ -35,35 +54,73 @@ public class Player {
            return;
        }
 
-       TileColor color = tiles.get(0).getColor();
-       hand.put(color, hand.getOrDefault(color, 0) + tiles.size());
-       hasSelectedThisTurn = true;
+       addTilesToHand(tiles.get(0).getColor(), tiles.size());
     }
 
-    public boolean placeTilesFromHand(TileColor color, int lineIndex) {
-        if (!hand.containsKey(color) || hand.get(color) == 0) {
-            return false;
+    public void addTilesToHand(TileColor color, int count) {
+        if (count == 0) {
+            return;
         }
 
-        int tilesInHand = hand.get(color);
-        List<Tile> tilesToPlace = new ArrayList<>();
-        for (int i = 0; i < tilesInHand; i++) {
-            tilesToPlace.add(new Tile(color));
-        }
+        setHandCount(color.ordinal(), hand[color.ordinal()] + count);
+        hasSelectedThisTurn = true;
+    }
 
-        boolean placed = addTilesToPatternLine(tilesToPlace, lineIndex);
-        if (placed) {
-            hand.remove(color);
+    private void setHandCount(int colorIndex, int count) {
+        long[] keys = Zobrist.HAND[seat][colorIndex];
+        handHash ^= Zobrist.count(keys, hand[colorIndex]) ^ Zobrist.count(keys, count);
+        handSize += count - hand[colorIndex];
+        hand[colorIndex] = count;
+    }
+
+    public boolean placeTilesFromHand(TileColor color, int lineIndex) {
+        int tilesInHand = hand[color.ordinal()];
+        if (tilesInHand == 0) {
+            return false;
         }
-        return placed;
+
+        int overflow = lineIndex < 0 || lineIndex >= 5
+                ? tilesInHand
+                : patternLines.addTiles(color, tilesInHand, lineIndex);
+        addTilesToNegativeLine(color, overflow);
+        setHandCount(color.ordinal(), 0);
+        return true;
     }
 
+    // Read-only view of the colors in hand, updated as the hand changes
     public Map<TileColor, Integer> getHand() {
-        return new EnumMap<>(hand);
+        return handView;
+    }
+
+    public int getHandCount(TileColor color) {
+        return hand[color.ordinal()];
+    }
+
+    public int getHandSize() {
+        return handSize;
+    }
+
+    public boolean isHandEmpty() {
+        return handSize == 0;
     }
 
     public void clearHand() {
-        hand.clear();
+        unpackHand(0);
+    }
+
+    // Hand counts packed 5 bits per color, used by GameSnapshot
+    int packHand() {
+        int packed = 0;
+        for (int i = 0; i < hand.length; i++) {
+            packed |= hand[i] << (i * 5);
+        }
+        return packed;
+    }
+
+    void unpackHand(int packed) {
+        for (int i = 0; i < hand.length; i++) {
+            setHandCount(i, (packed >>> (i * 5)) & 0x1F);
+        }
     }
 
     public boolean addTilesToPatternLine(List<Tile> tiles, int lineIndex) {
@@ -79,19 +136,57 @@ public class Player {
 
     public void addTilesToNegativeLine(List<Tile> tiles) {
         for (Tile tile : tiles) {
-            if (negativeLine.size() < MAX_NEGATIVE_LINE) {
-                negativeLine.add(tile);
-            }
+            addTilesToNegativeLine(tile.getColor(), 1);
         }
     }
 
-    public int calculateNegativeLinePenalty() {
-        int[] penalties = {-1, -1, -2, -2, -2, -3, -3};
-        int penalty = 0;
-        for (int i = 0; i < negativeLine.size(); i++) {
-            penalty += penalties[Math.min(i, penalties.length - 1)];
+    private void setNegativeLineCount(int colorIndex, int count) {
+        long[] keys = Zobrist.FLOOR[seat][colorIndex];
+        negativeLineHash ^= keys[negativeLine[colorIndex]] ^ keys[count];
+        negativeLineSize += count - negativeLine[colorIndex];
+        negativeLine[colorIndex] = count;
+    }
+
+    // Adds as many tiles as the floor line has room for and returns the excess
+    public int addTilesToNegativeLine(TileColor color, int count) {
+        int added = Math.min(count, MAX_NEGATIVE_LINE - negativeLineSize);
+        if (added > 0) {
+            setNegativeLineCount(color.ordinal(), negativeLine[color.ordinal()] + added);
         }
-        return penalty;
+        return count - added;
+    }
+
+    void removeFromNegativeLine(TileColor color, int count) {
+        int colorIndex = color.ordinal();
+        setNegativeLineCount(colorIndex, Math.max(0, negativeLine[colorIndex] - count));
+    }
+
+    // Floor colors packed 3 bits per color, used for undo records
+    int packNegativeLine() {
+        int packed = 0;
+        for (int i = 0; i < negativeLine.length; i++) {
+            packed |= negativeLine[i] << (i * 3);
+        }
+        return packed;
+    }
+
+    void unpackNegativeLine(int packed) {
+        for (int i = 0; i < negativeLine.length; i++) {
+            setNegativeLineCount(i, (packed >>> (i * 3)) & 0x7);
+        }
+    }
+
+    public int getNegativeLineCount() {
+        return negativeLineSize;
+    }
+
+    public int calculateNegativeLinePenalty() {
+        return negativeLinePenalty(negativeLineSize);
+    }
+
+    // Penalty for a floor line holding this many tiles; tiles past the last slot are discarded unscored
+    public static int negativeLinePenalty(int tiles) {
+        return NEGATIVE_LINE_PENALTIES[Math.min(tiles, MAX_NEGATIVE_LINE)];
     }
 
     public boolean canAddTilesToPatternLine(TileColor color, int lineIndex) {
@@ -99,28 +194,50 @@ public class Player {
     }
 
     public void transferTilesToWall() {
+        transferTilesToWall(null);
+    }
+
+    // Leftover tiles from tiled lines and floor overflow go to the bag's discard pile when one is given
+    public void transferTilesToWall(TileBag tileBag) {
         for (int i = 0; i < 5; i++) {
-            List<Tile> line = patternLines.getLine(i);
-            if (line.size() == i + 1) {
-                Tile tile = line.get(0);
-                if (wall.canPlaceTile(tile.getColor(), i)) {
-                    wall.placeTile(tile, i);
-                    score += wall.calculatePlacementScore(i, wall.getColumnForColor(tile.getColor(), i));
-                    patternLines.clearLine(i);
+            if (patternLines.isLineFull(i)) {
+                TileColor color = patternLines.getLineColor(i);
+                if (wall.canPlaceTile(color, i)) {
+                    wall.placeTile(Tile.of(color), i);
+                    score += wall.calculatePlacementScore(i, wall.getColumnForColor(color, i));
+                    if (tileBag != null) {
+                        tileBag.discard(color, i);
+                    }
                 } else {
-                    addTilesToNegativeLine(line);
-                    patternLines.clearLine(i);
+                    int excess = addTilesToNegativeLine(color, i + 1);
+                    if (tileBag != null) {
+                        tileBag.discard(color, excess);
+                    }
                 }
+                patternLines.clearLine(i);
             }
         }
     }
 
     public List<Tile> clearNegativeLine() {
-        List<Tile> clearedTiles = new ArrayList<>(negativeLine);
-        negativeLine.clear();
+        List<Tile> clearedTiles = new ArrayList<>(negativeLineView);
+        unpackNegativeLine(0);
         return clearedTiles;
     }
 
+    // Moves the floor tiles to the bag's discard pile without building a tile list
+    void discardNegativeLine(TileBag tileBag) {
+        for (TileColor color : COLORS) {
+            tileBag.discard(color, negativeLine[color.ordinal()]);
+        }
+        unpackNegativeLine(0);
+    }
+
+    // Wall, pattern lines, floor and hand
+    long zobristHash() {
+        return wall.zobristHash() ^ patternLines.zobristHash() ^ negativeLineHash ^ handHash;
+    }
+
     public boolean hasCompletedRow() {
         return wall.hasCompletedRow();
     }
@@ -146,8 +263,9 @@ public class Player {
         return wall;
     }
 
+    // Read-only view of the floor line, updated as the floor changes
     public List<Tile> getNegativeLine() {
-        return new ArrayList<>(negativeLine);
+        return negativeLineView;
     }
 
     @Override
@@ -155,8 +273,8 @@ public class Player {
         return "Player{" +
                 "name='" + name + '\'' +
                 ", score=" + score +
-                ", hand=" + hand +
-                ", negativeLine=" + negativeLine +
+                ", hand=" + handView +
+                ", negativeLine=" + Factory.countsToString(negativeLine) +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,379 @@
+package hr.algebra.azul.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Exact probabilities of the factory refills Game.fillFactories can produce from a given bag and
+// discard pile. Tiles are drawn without replacement, four per factory; when the bag runs dry the
+// discard pile is poured back in and drawing continues, so the draw is a multivariate hypergeometric
+// over the bag followed by one over the discard pile. Outcomes are canonical: the multiset of factory
+// contents, as CanonicalPosition count codes in descending order. Distributions are cached per
+// (bag, discard, factories) together with their outcome lists.
+public final class RefillDistribution {
+    private static final int COLORS = TileColor.values().length;
+    private static final int FACTORY_SIZE = 4;
+    private static final int MAX_CACHED = 1 << 14;
+    private static final double[] LOG_FACTORIAL = new double[TileBag.TILES_PER_COLOR * COLORS + 1];
+    private static final Map<Long, RefillDistribution> cache = new ConcurrentHashMap<>();
+    // Every possible content of a full factory as a count code, largest code first
+    private static final int[] FACTORY_CONTENTS = factoryContents();
+
+    static {
+        for (int i = 1; i < LOG_FACTORIAL.length; i++) {
+            LOG_FACTORIAL[i] = LOG_FACTORIAL[i - 1] + Math.log(i);
+        }
+    }
+
+    private final int[] bag;
+    private final int[] discard;
+    private final int bagSize;
+    private final int discardSize;
+    private final int factories;
+    private final Map<Integer, List<Outcome>> outcomeLists = new ConcurrentHashMap<>();
+
+    // factoryCodes holds the filled factories only; factories past its length stay empty. bag and
+    // discard are the counts left once the refill is done. weight is the share a search should give
+    // the outcome; see outcomes. The arrays are not copied.
+    public record Outcome(int[] factoryCodes, int[] bag, int[] discard, double probability, double weight) {
+    }
+
+    private static int[] factoryContents() {
+        List<Integer> codes = new ArrayList<>();
+        for (int code = 0; code < 1 << (3 * COLORS); code++) {
+            int tiles = 0;
+            for (int c = 0; c < COLORS; c++) {
+                tiles += (code >>> (c * 3)) & 0x7;
+            }
+            if (tiles == FACTORY_SIZE) {
+                codes.add(code);
+            }
+        }
+        return codes.stream().sorted((a, b) -> b - a).mapToInt(Integer::intValue).toArray();
+    }
+
+    private RefillDistribution(int[] bag, int[] discard, int factories) {
+        this.bag = bag.clone();
+        this.discard = discard.clone();
+        this.bagSize = Arrays.stream(bag).sum();
+        this.discardSize = Arrays.stream(discard).sum();
+        this.factories = factories;
+    }
+
+    // Distribution for refilling every factory of the game. Right after a move that ended the round
+    // this is the refill that move made, drawn from the counts before it; otherwise it is a refill
+    // from the current bag and discard pile.
+    public static RefillDistribution of(Game game) {
+        int[] bagCounts = new int[COLORS];
+        int[] discardCounts = new int[COLORS];
+        if (!game.copyRefillCounts(bagCounts, discardCounts)) {
+            game.getTileBag().copyCounts(bagCounts, discardCounts);
+        }
+        return of(bagCounts, discardCounts, game.getFactories().size());
+    }
+
+    public static RefillDistribution of(int[] bag, int[] discard, int factories) {
+        long key = factories;
+        for (int i = 0; i < COLORS; i++) {
+            key = (key << 5 | bag[i]) << 5 | discard[i];
+        }
+        RefillDistribution cached = cache.get(key);
+        if (cached == null) {
+            if (cache.size() >= MAX_CACHED) {
+                cache.clear();
+            }
+            cached = cache.computeIfAbsent(key, k -> new RefillDistribution(bag, discard, factories));
+        }
+        return cached;
+    }
+
+    // Number of factories that get four tiles; the rest stay empty when tiles run out
+    public int getFilledFactories() {
+        return Math.min(factories, (bagSize + discardSize) / FACTORY_SIZE);
+    }
+
+    // Exact probability of a refill; the codes may be in any order
+    public double probability(int[] factoryCodes) {
+        if (factoryCodes.length != getFilledFactories()) {
+            return 0;
+        }
+        int[][] contents = new int[factoryCodes.length][];
+        int[] drawn = new int[COLORS];
+        for (int i = 0; i < factoryCodes.length; i++) {
+            contents[i] = decode(factoryCodes[i]);
+            for (int c = 0; c < COLORS; c++) {
+                drawn[c] += contents[i][c];
+            }
+        }
+
+        // Orderings of the multiset that look the same: divide by the multiplicity factorials
+        int[] sorted = factoryCodes.clone();
+        Arrays.sort(sorted);
+        double logSame = 0;
+        for (int i = 0, run = 1; i < sorted.length; i++, run++) {
+            if (i + 1 == sorted.length || sorted[i + 1] != sorted[i]) {
+                logSame += LOG_FACTORIAL[run];
+                run = 0;
+            }
+        }
+
+        int tiles = factoryCodes.length * FACTORY_SIZE;
+        if (tiles <= bagSize) {
+            // Every tile comes from the bag: each tile sequence has probability prod b!/(b-t)! / N!/(N-n)!
+            double log = LOG_FACTORIAL[factoryCodes.length] - logSame - logFalling(bagSize, tiles);
+            for (int c = 0; c < COLORS; c++) {
+                if (drawn[c] > bag[c]) {
+                    return 0;
+                }
+                log += logFalling(bag[c], drawn[c]);
+            }
+            for (int[] content : contents) {
+                log += logMultinomial(content, FACTORY_SIZE);
+            }
+            return Math.exp(log);
+        }
+
+        // The whole bag is drawn first, then the rest comes from the discard pile
+        double logSequence = -LOG_FACTORIAL[bagSize] - logFalling(discardSize, tiles - bagSize);
+        for (int c = 0; c < COLORS; c++) {
+            int fromDiscard = drawn[c] - bag[c];
+            if (fromDiscard < 0 || fromDiscard > discard[c]) {
+                return 0;
+            }
+            logSequence += LOG_FACTORIAL[bag[c]] + logFalling(discard[c], fromDiscard);
+        }
+        return Math.exp(logSequence - logSame) * bagSplitArrangements(contents);
+    }
+
+    // Tile sequences that put these contents into the factories, in some factory order, and draw the
+    // whole bag first. The factories before the one that straddles the bag boundary must together
+    // hold the bag minus the straddling factory's share.
+    private double bagSplitArrangements(int[][] contents) {
+        int filled = contents.length;
+        int before = bagSize / FACTORY_SIZE;
+        int split = bagSize % FACTORY_SIZE;
+        double total = 0;
+        int[] rest = new int[COLORS];
+        for (int subset = 0; subset < 1 << filled; subset++) {
+            if (Integer.bitCount(subset) != before) {
+                continue;
+            }
+            System.arraycopy(bag, 0, rest, 0, COLORS);
+            double logWays = 0;
+            boolean fits = true;
+            for (int i = 0; i < filled && fits; i++) {
+                if ((subset & (1 << i)) != 0) {
+                    for (int c = 0; c < COLORS; c++) {
+                        rest[c] -= contents[i][c];
+                        fits &= rest[c] >= 0;
+                    }
+                    logWays += logMultinomial(contents[i], FACTORY_SIZE);
+                }
+            }
+            if (!fits) {
+                continue;
+            }
+            if (split == 0) {
+                if (isZero(rest)) {
+                    total += Math.exp(logWays + LOG_FACTORIAL[before] + LOG_FACTORIAL[filled - before]
+                            + logOthers(contents, subset, -1));
+                }
+                continue;
+            }
+            for (int k = 0; k < filled; k++) {
+                if ((subset & (1 << k)) != 0 || !fitsWithin(rest, contents[k])) {
+                    continue;
+                }
+                int[] fromDiscard = new int[COLORS];
+                for (int c = 0; c < COLORS; c++) {
+                    fromDiscard[c] = contents[k][c] - rest[c];
+                }
+                total += Math.exp(logWays + LOG_FACTORIAL[before] + LOG_FACTORIAL[filled - before - 1]
+                        + logMultinomial(rest, split) + logMultinomial(fromDiscard, FACTORY_SIZE - split)
+                        + logOthers(contents, subset, k));
+            }
+        }
+        return total;
+    }
+
+    private static double logOthers(int[][] contents, int subset, int straddling) {
+        double log = 0;
+        for (int i = 0; i < contents.length; i++) {
+            if ((subset & (1 << i)) == 0 && i != straddling) {
+                log += logMultinomial(contents[i], FACTORY_SIZE);
+            }
+        }
+        return log;
+    }
+
+    // The refills a search should branch over, weights summing to 1. When the distribution has at most
+    // limit outcomes they are all listed with their exact probabilities as weights. Otherwise limit
+    // refills are drawn, seeded by the bag and discard so a state always gives the same list, and
+    // each distinct one is weighted by how often it came up.
+    public List<Outcome> outcomes(int limit) {
+        return outcomeLists.computeIfAbsent(limit, this::listOutcomes);
+    }
+
+    private List<Outcome> listOutcomes(int limit) {
+        List<Outcome> exact = enumerate(limit);
+        if (exact != null) {
+            return exact;
+        }
+        SplittableRandom random = new SplittableRandom(Arrays.hashCode(bag) * 31L + Arrays.hashCode(discard));
+        Map<List<Integer>, Integer> counts = new LinkedHashMap<>();
+        for (int s = 0; s < limit; s++) {
+            counts.merge(Arrays.stream(drawCodes(random)).boxed().toList(), 1, Integer::sum);
+        }
+        List<Outcome> outcomes = new ArrayList<>(counts.size());
+        counts.forEach((codes, count) -> outcomes.add(
+                outcome(codes.stream().mapToInt(Integer::intValue).toArray(), (double) count / limit)));
+        return List.copyOf(outcomes);
+    }
+
+    // Every outcome with non-zero probability, or null when there are more than limit of them
+    private List<Outcome> enumerate(int limit) {
+        List<Outcome> outcomes = new ArrayList<>();
+        int[] available = new int[COLORS];
+        for (int c = 0; c < COLORS; c++) {
+            available[c] = bag[c] + discard[c];
+        }
+        int[] budget = {limit * 64};
+        boolean complete = enumerate(new int[getFilledFactories()], 0, 0, available, outcomes, limit, budget);
+        return complete ? List.copyOf(outcomes) : null;
+    }
+
+    // Indexes into FACTORY_CONTENTS never decrease along the codes, so each multiset of contents
+    // is visited once; budget bounds the work spent on refills that turn out impossible
+    private boolean enumerate(int[] codes, int factory, int first, int[] available,
+                              List<Outcome> outcomes, int limit, int[] budget) {
+        if (--budget[0] < 0) {
+            return false;
+        }
+        if (factory == codes.length) {
+            double probability = probability(codes);
+            if (probability > 0) {
+                if (outcomes.size() == limit) {
+                    return false;
+                }
+                outcomes.add(outcome(codes.clone(), probability));
+            }
+            return true;
+        }
+        for (int i = first; i < FACTORY_CONTENTS.length; i++) {
+            int[] content = decode(FACTORY_CONTENTS[i]);
+            if (!fitsWithin(content, available)) {
+                continue;
+            }
+            for (int c = 0; c < COLORS; c++) {
+                available[c] -= content[c];
+            }
+            codes[factory] = FACTORY_CONTENTS[i];
+            boolean complete = enumerate(codes, factory + 1, i, available, outcomes, limit, budget);
+            for (int c = 0; c < COLORS; c++) {
+                available[c] += content[c];
+            }
+            if (!complete) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Mirrors TileBag.draw and Game.fillFactories; codes in descending order
+    private int[] drawCodes(SplittableRandom random) {
+        int[] left = bag.clone();
+        int[] pile = discard.clone();
+        int leftSize = bagSize;
+        int pileSize = discardSize;
+        int[] codes = new int[getFilledFactories()];
+        for (int f = 0; f < codes.length; f++) {
+            for (int t = 0; t < FACTORY_SIZE; t++) {
+                if (leftSize == 0) {
+                    for (int c = 0; c < COLORS; c++) {
+                        left[c] += pile[c];
+                        pile[c] = 0;
+                    }
+                    leftSize = pileSize;
+                    pileSize = 0;
+                }
+                int pick = random.nextInt(leftSize);
+                int color = 0;
+                while (pick >= left[color]) {
+                    pick -= left[color];
+                    color++;
+                }
+                left[color]--;
+                leftSize--;
+                codes[f] += 1 << (color * 3);
+            }
+        }
+        Arrays.sort(codes);
+        for (int i = 0, j = codes.length - 1; i < j; i++, j--) {
+            int swap = codes[i];
+            codes[i] = codes[j];
+            codes[j] = swap;
+        }
+        return codes;
+    }
+
+    // The bag is poured out whenever the refill asks for more tiles than it holds, including a short
+    // last factory that is given back
+    private Outcome outcome(int[] codes, double weight) {
+        int[] bagAfter = bag.clone();
+        int[] discardAfter = discard.clone();
+        if (Math.min(factories * FACTORY_SIZE, bagSize + discardSize) > bagSize) {
+            for (int c = 0; c < COLORS; c++) {
+                bagAfter[c] += discardAfter[c];
+                discardAfter[c] = 0;
+            }
+        }
+        for (int code : codes) {
+            for (int c = 0; c < COLORS; c++) {
+                bagAfter[c] -= (code >>> (c * 3)) & 0x7;
+            }
+        }
+        return new Outcome(codes, bagAfter, discardAfter, probability(codes), weight);
+    }
+
+    static int[] decode(int contentCode) {
+        int[] counts = new int[COLORS];
+        for (int c = 0; c < COLORS; c++) {
+            counts[c] = (contentCode >>> (c * 3)) & 0x7;
+        }
+        return counts;
+    }
+
+    private static double logFalling(int n, int k) {
+        return LOG_FACTORIAL[n] - LOG_FACTORIAL[n - k];
+    }
+
+    private static double logMultinomial(int[] counts, int total) {
+        double log = LOG_FACTORIAL[total];
+        for (int count : counts) {
+            log -= LOG_FACTORIAL[count];
+        }
+        return log;
+    }
+
+    private static boolean isZero(int[] counts) {
+        for (int count : counts) {
+            if (count != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean fitsWithin(int[] part, int[] whole) {
+        for (int c = 0; c < COLORS; c++) {
+            if (part[c] < 0 || part[c] > whole[c]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,132 @@
+package hr.algebra.azul.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+// Difference between two GameSnapshots of the same game as the XOR of each changed packed word.
+// A move usually changes 3-6 of the 11-15 words, so a delta is a short mask plus a few longs.
+// XOR makes the delta its own inverse: applyTo goes forward and revert goes back.
+// Word layout (see GameSnapshot): header, center, bag, discard, factories, then two words per player.
+public final class SnapshotDelta {
+    private final long baseVersion;
+    private final long targetVersion;
+    private final int baseChecksum;
+    private final int targetChecksum;
+    private final int changedMask;
+    private final long[] changes;
+
+    private SnapshotDelta(long baseVersion, long targetVersion, int baseChecksum, int targetChecksum,
+                          int changedMask, long[] changes) {
+        this.baseVersion = baseVersion;
+        this.targetVersion = targetVersion;
+        this.baseChecksum = baseChecksum;
+        this.targetChecksum = targetChecksum;
+        this.changedMask = changedMask;
+        this.changes = changes;
+    }
+
+    public static SnapshotDelta between(GameSnapshot base, GameSnapshot target) {
+        return between(0, base, 1, target);
+    }
+
+    public static SnapshotDelta between(long baseVersion, GameSnapshot base, long targetVersion, GameSnapshot target) {
+        if (base.wordCount() != target.wordCount()) {
+            throw new IllegalArgumentException("Snapshots have different player counts");
+        }
+        int changedMask = 0;
+        for (int i = 0; i < base.wordCount(); i++) {
+            if (base.word(i) != target.word(i)) {
+                changedMask |= 1 << i;
+            }
+        }
+        long[] changes = new long[Integer.bitCount(changedMask)];
+        int next = 0;
+        for (int mask = changedMask; mask != 0; mask &= mask - 1) {
+            int i = Integer.numberOfTrailingZeros(mask);
+            changes[next++] = base.word(i) ^ target.word(i);
+        }
+        return new SnapshotDelta(baseVersion, targetVersion, base.hashCode(), target.hashCode(), changedMask, changes);
+    }
+
+    public GameSnapshot applyTo(GameSnapshot base) {
+        if (base.hashCode() != baseChecksum) {
+            throw new IllegalArgumentException("Delta " + baseVersion + "->" + targetVersion + " does not start from this snapshot");
+        }
+        return patch(base, targetChecksum);
+    }
+
+    public GameSnapshot revert(GameSnapshot target) {
+        if (target.hashCode() != targetChecksum) {
+            throw new IllegalArgumentException("Delta " + baseVersion + "->" + targetVersion + " does not end at this snapshot");
+        }
+        return patch(target, baseChecksum);
+    }
+
+    private GameSnapshot patch(GameSnapshot from, int expectedChecksum) {
+        if (Integer.SIZE - Integer.numberOfLeadingZeros(changedMask) > from.wordCount()) {
+            throw new IllegalArgumentException("Delta touches words beyond this snapshot");
+        }
+        long[] words = new long[from.wordCount()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = from.word(i);
+        }
+        int next = 0;
+        for (int mask = changedMask; mask != 0; mask &= mask - 1) {
+            words[Integer.numberOfTrailingZeros(mask)] ^= changes[next++];
+        }
+        GameSnapshot result = GameSnapshot.wrap(words);
+        if (result.hashCode() != expectedChecksum) {
+            throw new IllegalStateException("Patched snapshot failed its checksum");
+        }
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return changedMask == 0;
+    }
+
+    public int getChangedWordCount() {
+        return changes.length;
+    }
+
+    public long getBaseVersion() {
+        return baseVersion;
+    }
+
+    public long getTargetVersion() {
+        return targetVersion;
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeLong(baseVersion);
+        out.writeLong(targetVersion);
+        out.writeInt(baseChecksum);
+        out.writeInt(targetChecksum);
+        out.writeShort(changedMask);
+        for (long change : changes) {
+            out.writeLong(change);
+        }
+    }
+
+    public static SnapshotDelta readFrom(DataInput in) throws IOException {
+        long baseVersion = in.readLong();
+        long targetVersion = in.readLong();
+        int baseChecksum = in.readInt();
+        int targetChecksum = in.readInt();
+        int changedMask = in.readUnsignedShort();
+        long[] changes = new long[Integer.bitCount(changedMask)];
+        for (int i = 0; i < changes.length; i++) {
+            changes[i] = in.readLong();
+        }
+        return new SnapshotDelta(baseVersion, targetVersion, baseChecksum, targetChecksum, changedMask, changes);
+    }
+
+    @Override
+    public String toString() {
+        return "SnapshotDelta{" + baseVersion + "->" + targetVersion +
+                ", words=" + Integer.toBinaryString(changedMask) +
+                ", changes=" + Arrays.toString(changes) + '}';
+    }
+}
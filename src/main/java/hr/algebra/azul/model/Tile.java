@@ -1,14 +1,26 @@
 package hr.algebra.azul.model;
 
 public class Tile {
-    private TileColor color;
+    private static final Tile[] CANONICAL = new Tile[TileColor.values().length];
+
+    static {
+        for (TileColor color : TileColor.values()) {
+            CANONICAL[color.ordinal()] = new Tile(color);
+        }
+    }
+
+    private final TileColor color;
 
     public Tile(TileColor color) {
         this.color = color;
     }
 
+    // The model stores counts per color; tiles handed out by views are one shared instance per color
+    public static Tile of(TileColor color) {
+        return CANONICAL[color.ordinal()];
+    }
+
     public TileColor getColor() {
         return color;
     }
 }
-
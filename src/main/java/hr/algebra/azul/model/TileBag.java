@@ -0,0 +1,132 @@
+package hr.algebra.azul.model;
+
+import java.util.SplittableRandom;
+
+public class TileBag {
+    private static final TileColor[] COLORS = TileColor.values();
+    public static final int TILES_PER_COLOR = 20;
+
+    private final int[] bag;
+    private final int[] discard;
+    private int bagSize;
+    private int discardSize;
+    private final SplittableRandom random;
+
+    public TileBag(SplittableRandom random) {
+        this.random = random;
+        this.bag = new int[COLORS.length];
+        this.discard = new int[COLORS.length];
+        for (int i = 0; i < bag.length; i++) {
+            bag[i] = TILES_PER_COLOR;
+        }
+        this.bagSize = TILES_PER_COLOR * COLORS.length;
+        this.discardSize = 0;
+    }
+
+    public TileBag(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    // Weighted draw over the colour counts; refills from the discard pile when the bag runs dry
+    public TileColor draw() {
+        if (bagSize == 0) {
+            refill();
+            if (bagSize == 0) {
+                return null;
+            }
+        }
+
+        int pick = random.nextInt(bagSize);
+        int color = 0;
+        while (pick >= bag[color]) {
+            pick -= bag[color];
+            color++;
+        }
+        bag[color]--;
+        bagSize--;
+        return COLORS[color];
+    }
+
+    // Adds up to tileCount drawn tiles to target counts and returns how many were drawn
+    public int draw(int[] target, int tileCount) {
+        int drawn = 0;
+        for (; drawn < tileCount; drawn++) {
+            TileColor color = draw();
+            if (color == null) {
+                break;
+            }
+            target[color.ordinal()]++;
+        }
+        return drawn;
+    }
+
+    public void returnToBag(int[] colorCounts) {
+        for (int i = 0; i < bag.length; i++) {
+            bag[i] += colorCounts[i];
+            bagSize += colorCounts[i];
+        }
+    }
+
+    public void discard(TileColor color, int count) {
+        discard[color.ordinal()] += count;
+        discardSize += count;
+    }
+
+    public void refill() {
+        for (int i = 0; i < bag.length; i++) {
+            bag[i] += discard[i];
+            discard[i] = 0;
+        }
+        bagSize += discardSize;
+        discardSize = 0;
+    }
+
+    void copyCounts(int[] bagOut, int[] discardOut) {
+        System.arraycopy(bag, 0, bagOut, 0, bag.length);
+        System.arraycopy(discard, 0, discardOut, 0, discard.length);
+    }
+
+    void setCounts(int[] bagCounts, int[] discardCounts) {
+        bagSize = 0;
+        discardSize = 0;
+        for (int i = 0; i < bag.length; i++) {
+            bag[i] = bagCounts[i];
+            discard[i] = discardCounts[i];
+            bagSize += bagCounts[i];
+            discardSize += discardCounts[i];
+        }
+    }
+
+    public int getBagCount(TileColor color) {
+        return bag[color.ordinal()];
+    }
+
+    public int getDiscardCount(TileColor color) {
+        return discard[color.ordinal()];
+    }
+
+    public int getBagSize() {
+        return bagSize;
+    }
+
+    public int getDiscardSize() {
+        return discardSize;
+    }
+
+    public boolean isEmpty() {
+        return bagSize == 0;
+    }
+
+    // Independent stream for a parallel worker; the parent stream stays usable
+    public SplittableRandom splitRandom() {
+        return random.split();
+    }
+
+    @Override
+    public String toString() {
+        return "TileBag{" +
+                "bag=" + Factory.countsToString(bag) +
+                ", discard=" + Factory.countsToString(discard) +
+                '}';
+    }
+}
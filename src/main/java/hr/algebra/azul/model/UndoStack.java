@@ -0,0 +1,46 @@
+package hr.algebra.azul.model;
+
+import java.util.Arrays;
+
+// Growable int stack holding the packed undo records of Game.applyMove
+final class UndoStack {
+    private int[] data;
+    private int size;
+
+    UndoStack() {
+        this.data = new int[256];
+        this.size = 0;
+    }
+
+    void push(int value) {
+        if (size == data.length) {
+            data = Arrays.copyOf(data, size * 2);
+        }
+        data[size++] = value;
+    }
+
+    int pop() {
+        return data[--size];
+    }
+
+    int peek() {
+        return data[size - 1];
+    }
+
+    // The value below entries above the top
+    int peek(int below) {
+        return data[size - 1 - below];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
@@ -1,7 +1,16 @@
 package hr.algebra.azul.model;
 
 public class Wall {
-    private Tile[][] tiles;
+    private int mask;
+    private final int seat;
+    private long hash;
+    // Running aggregates kept in step with the mask so completion checks and bonuses are plain reads
+    private final int[] rowCounts = new int[5];
+    private final int[] columnCounts = new int[5];
+    private final int[] colorCounts = new int[5];
+    private int completedRows;
+    private int completedColumns;
+    private int completedColors;
     private static final TileColor[][] wallPattern = {
             {TileColor.BLUE, TileColor.YELLOW, TileColor.RED, TileColor.BLACK, TileColor.WHITE},
             {TileColor.WHITE, TileColor.BLUE, TileColor.YELLOW, TileColor.RED, TileColor.BLACK},
@@ -11,155 +20,130 @@ public class Wall {
     };
 
     public Wall() {
-        tiles = new Tile[5][5];
+        this(0);
+    }
+
+    Wall(int seat) {
+        this.mask = WallMask.EMPTY;
+        this.seat = seat;
+        this.hash = 0;
     }
 
     public boolean canPlaceTile(TileColor color, int row) {
-        if (isColorCompleted(color)) {
-            return false;  // Cannot place a tile if its color is already completed
-        }
-        int col = getColumnForColor(color, row);
-        return col != -1 && tiles[row][col] == null;
+        // A completed color always occupies this row's cell, so the bit test covers that rule too
+        return WallMask.canPlace(mask, color, row);
     }
 
     public boolean isColorCompleted(TileColor color) {
-        int count = 0;
-        for (int row = 0; row < 5; row++) {
-            for (int col = 0; col < 5; col++) {
-                if (tiles[row][col] != null && tiles[row][col].getColor() == color) {
-                    count++;
-                }
-            }
-        }
-        return count == 5;
+        return colorCounts[color.ordinal()] == 5;
     }
 
-
     public void placeTile(Tile tile, int row) {
-        int col = getColumnForColor(tile.getColor(), row);
-        if (col != -1 && tiles[row][col] == null && !isColorCompleted(tile.getColor())) {
-            tiles[row][col] = tile;
-        } else {
+        if (!WallMask.canPlace(mask, tile.getColor(), row)) {
             throw new IllegalArgumentException("Cannot place tile in this position");
         }
+        setMask(WallMask.place(mask, tile.getColor(), row));
     }
 
     public boolean hasCompletedRow() {
-        for (int row = 0; row < 5; row++) {
-            if (isRowComplete(row)) {
-                return true;
-            }
-        }
-        return false;
+        return completedRows > 0;
     }
 
     public int calculateScore() {
-        return calculateRowsScore() + calculateColumnsScore() + calculateColorSetsScore();
+        return completedRows * 2 + completedColumns * 7 + completedColors * 10;
     }
 
-    private int calculateRowsScore() {
-        int score = 0;
-        for (int row = 0; row < 5; row++) {
-            if (isRowComplete(row)) {
-                score += 2;
-            }
-        }
-        return score;
+    public int calculatePlacementScore(int row, int col) {
+        return WallMask.placementScore(mask, row, col);
     }
 
-    private int calculateColumnsScore() {
-        int score = 0;
-        for (int col = 0; col < 5; col++) {
-            if (isColumnComplete(col)) {
-                score += 7;
-            }
-        }
-        return score;
+    public boolean isRowComplete(int row) {
+        return rowCounts[row] == 5;
     }
 
-    private int calculateColorSetsScore() {
-        int score = 0;
-        for (TileColor color : TileColor.values()) {
-            if (isColorCompleted(color)) {
-                score += 10;
-            }
-        }
-        return score;
+    public boolean isColumnComplete(int col) {
+        return columnCounts[col] == 5;
     }
 
-    public int calculatePlacementScore(int row, int col) {
-        int score = 1; // Minimum score for placement
-        score += calculateHorizontalScore(row, col);
-        score += calculateVerticalScore(row, col);
-        return score;
+    public int getRowTileCount(int row) {
+        return rowCounts[row];
     }
 
-    private int calculateHorizontalScore(int row, int col) {
-        int score = 0;
-        // Check left
-        for (int c = col - 1; c >= 0 && tiles[row][c] != null; c--) {
-            score++;
-        }
-        // Check right
-        for (int c = col + 1; c < 5 && tiles[row][c] != null; c++) {
-            score++;
-        }
-        return score;
+    public int getColumnTileCount(int col) {
+        return columnCounts[col];
     }
 
-    private int calculateVerticalScore(int row, int col) {
-        int score = 0;
-        // Check up
-        for (int r = row - 1; r >= 0 && tiles[r][col] != null; r--) {
-            score++;
-        }
-        // Check down
-        for (int r = row + 1; r < 5 && tiles[r][col] != null; r++) {
-            score++;
-        }
-        return score;
+    public int getColorTileCount(TileColor color) {
+        return colorCounts[color.ordinal()];
     }
 
-    private boolean isRowComplete(int row) {
-        int tilesInRow = 0;
-        for (int col = 0; col < 5; col++) {
-            if (tiles[row][col] != null) {
-                tilesInRow++;
-            }
-        }
-        return tilesInRow == 5;  // Row is complete when it has all 5 tiles
+    public int getCompletedRowCount() {
+        return completedRows;
     }
 
-    private boolean isColumnComplete(int col) {
-        for (int row = 0; row < 5; row++) {
-            if (tiles[row][col] == null) {
-                return false;
-            }
-        }
-        return true;
+    public int getCompletedColumnCount() {
+        return completedColumns;
+    }
+
+    public int getCompletedColorCount() {
+        return completedColors;
+    }
+
+    public int getTileCount() {
+        return Integer.bitCount(mask);
     }
 
     public int getColumnForColor(TileColor color, int row) {
-        for (int col = 0; col < 5; col++) {
-            if (wallPattern[row][col] == color) {
-                return col;
-            }
-        }
-        return -1; // Color not found in this row
+        return WallMask.columnForColor(color, row);
     }
 
     public boolean hasTile(int row, int col) {
-        return tiles[row][col] != null;
+        return WallMask.hasTile(mask, row, col);
     }
 
     public TileColor getTileColor(int row, int col) {
-        return tiles[row][col] != null ? tiles[row][col].getColor() : null;
+        return hasTile(row, col) ? wallPattern[row][col] : null;
     }
 
     public Tile[][] getTiles() {
+        Tile[][] tiles = new Tile[5][5];
+        for (int row = 0; row < 5; row++) {
+            for (int col = 0; col < 5; col++) {
+                if (hasTile(row, col)) {
+                    tiles[row][col] = Tile.of(wallPattern[row][col]);
+                }
+            }
+        }
         return tiles;
     }
 
+    public int getMask() {
+        return mask;
+    }
+
+    void setMask(int mask) {
+        hash ^= Zobrist.wallDelta(seat, this.mask, mask);
+        for (int changed = this.mask ^ mask; changed != 0; changed &= changed - 1) {
+            int cell = Integer.numberOfTrailingZeros(changed);
+            int delta = (mask & (1 << cell)) != 0 ? 1 : -1;
+            completedRows += adjust(rowCounts, cell / 5, delta);
+            completedColumns += adjust(columnCounts, cell % 5, delta);
+            completedColors += adjust(colorCounts, WallMask.colorOrdinalAt(cell), delta);
+        }
+        this.mask = mask;
+    }
+
+    // Applies delta to one counter and returns the change in the number of completed lines
+    private static int adjust(int[] counts, int index, int delta) {
+        int before = counts[index];
+        counts[index] = before + delta;
+        return (counts[index] == 5 ? 1 : 0) - (before == 5 ? 1 : 0);
+    }
+
+    long zobristHash() {
+        return hash;
+    }
+
     public static TileColor getWallPatternColor(int row, int col) {
         return wallPattern[row][col];
     }
@@ -169,14 +153,14 @@ public class Wall {
         StringBuilder sb = new StringBuilder();
         for (int row = 0; row < 5; row++) {
             for (int col = 0; col < 5; col++) {
-                if (tiles[row][col] == null) {
+                if (!hasTile(row, col)) {
                     sb.append("- ");
                 } else {
-                    sb.append(tiles[row][col].getColor().toString().charAt(0)).append(" ");
+                    sb.append(wallPattern[row][col].toString().charAt(0)).append(" ");
                 }
             }
             sb.append("\n");
         }
         return sb.toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,133 @@
+package hr.algebra.azul.model;
+
+// Bitboard helpers for a 5x5 wall stored as a 25-bit int, bit index = row * 5 + col.
+public final class WallMask {
+    public static final int SIZE = 5;
+    public static final int EMPTY = 0;
+    public static final int FULL = (1 << (SIZE * SIZE)) - 1;
+
+    private static final int ROW_BITS = 0x1F;
+    private static final int COLUMN_BITS = 0x108421;   // bits 0, 5, 10, 15, 20
+    private static final int COLUMN_GATHER = 0x11111;  // moves column bits 0, 5, ..., 20 to 16..20
+
+    private static final int[] COLOR_MASKS = new int[SIZE];
+    private static final int[][] COLUMN_FOR_COLOR = new int[SIZE][SIZE];
+    private static final int[] COLOR_AT = new int[SIZE * SIZE];
+    // Number of occupied cells directly connected to a position in a 5-cell line
+    private static final int[][] NEIGHBOUR_RUN = new int[1 << SIZE][SIZE];
+
+    static {
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                int color = Wall.getWallPatternColor(row, col).ordinal();
+                COLOR_MASKS[color] |= bit(row, col);
+                COLUMN_FOR_COLOR[row][color] = col;
+                COLOR_AT[row * SIZE + col] = color;
+            }
+        }
+
+        for (int line = 0; line < (1 << SIZE); line++) {
+            for (int pos = 0; pos < SIZE; pos++) {
+                int run = 0;
+                for (int p = pos - 1; p >= 0 && (line & (1 << p)) != 0; p--) {
+                    run++;
+                }
+                for (int p = pos + 1; p < SIZE && (line & (1 << p)) != 0; p++) {
+                    run++;
+                }
+                NEIGHBOUR_RUN[line][pos] = run;
+            }
+        }
+    }
+
+    private WallMask() {
+    }
+
+    public static int bit(int row, int col) {
+        return 1 << (row * SIZE + col);
+    }
+
+    public static int columnForColor(TileColor color, int row) {
+        return COLUMN_FOR_COLOR[row][color.ordinal()];
+    }
+
+    public static int colorOrdinalAt(int cell) {
+        return COLOR_AT[cell];
+    }
+
+    public static int colorMask(TileColor color) {
+        return COLOR_MASKS[color.ordinal()];
+    }
+
+    public static boolean hasTile(int mask, int row, int col) {
+        return (mask & bit(row, col)) != 0;
+    }
+
+    public static boolean canPlace(int mask, TileColor color, int row) {
+        return (mask & bit(row, COLUMN_FOR_COLOR[row][color.ordinal()])) == 0;
+    }
+
+    public static int place(int mask, TileColor color, int row) {
+        return mask | bit(row, COLUMN_FOR_COLOR[row][color.ordinal()]);
+    }
+
+    public static int rowBits(int mask, int row) {
+        return (mask >>> (row * SIZE)) & ROW_BITS;
+    }
+
+    public static int columnBits(int mask, int col) {
+        return (((mask >>> col) & COLUMN_BITS) * COLUMN_GATHER >>> 16) & ROW_BITS;
+    }
+
+    public static boolean isRowComplete(int mask, int row) {
+        return rowBits(mask, row) == ROW_BITS;
+    }
+
+    public static boolean isColumnComplete(int mask, int col) {
+        return ((mask >>> col) & COLUMN_BITS) == COLUMN_BITS;
+    }
+
+    public static boolean isColorComplete(int mask, TileColor color) {
+        int colorMask = COLOR_MASKS[color.ordinal()];
+        return (mask & colorMask) == colorMask;
+    }
+
+    // Bit r*5 is set when row r is complete
+    private static int completedRowStarts(int mask) {
+        return mask & (mask >>> 1) & (mask >>> 2) & (mask >>> 3) & (mask >>> 4) & COLUMN_BITS;
+    }
+
+    public static boolean hasCompletedRow(int mask) {
+        return completedRowStarts(mask) != 0;
+    }
+
+    public static int completedRows(int mask) {
+        return Integer.bitCount(completedRowStarts(mask));
+    }
+
+    public static int completedColumns(int mask) {
+        return Integer.bitCount(mask & (mask >>> 5) & (mask >>> 10) & (mask >>> 15) & (mask >>> 20) & ROW_BITS);
+    }
+
+    public static int completedColors(int mask) {
+        int count = 0;
+        for (int colorMask : COLOR_MASKS) {
+            if ((mask & colorMask) == colorMask) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static int placementScore(int mask, int row, int col) {
+        return 1 + NEIGHBOUR_RUN[rowBits(mask, row)][col] + NEIGHBOUR_RUN[columnBits(mask, col)][row];
+    }
+
+    public static int bonusScore(int mask) {
+        return completedRows(mask) * 2 + completedColumns(mask) * 7 + completedColors(mask) * 10;
+    }
+
+    public static int tileCount(int mask) {
+        return Integer.bitCount(mask);
+    }
+}
@@ -0,0 +1,83 @@
+package hr.algebra.azul.model;
+
+import java.util.SplittableRandom;
+
+// Zobrist keys for Game positions. The seed is fixed so every JVM derives the same keys and
+// clients can compare position hashes directly. A zero count always maps to a zero key.
+public final class Zobrist {
+    static final int MAX_PLAYERS = 4;
+    static final int MAX_FACTORIES = 9;
+    static final int MAX_POOL = 100;
+    private static final int COLORS = TileColor.values().length;
+    private static final long SEED = 0x417A756CL;
+
+    static final long[][][] FACTORY = new long[MAX_FACTORIES][COLORS][5];
+    static final long[][] CENTER = new long[COLORS][MAX_POOL + 1];
+    static final long[][] WALL = new long[MAX_PLAYERS][25];
+    static final long[][][][] PATTERN_LINE = new long[MAX_PLAYERS][5][COLORS][6];
+    static final long[][][] FLOOR = new long[MAX_PLAYERS][COLORS][8];
+    static final long[][][] HAND = new long[MAX_PLAYERS][COLORS][MAX_POOL + 1];
+    static final long[] CURRENT_PLAYER = new long[MAX_PLAYERS];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long[][] factory : FACTORY) {
+            fill(factory, random);
+        }
+        fill(CENTER, random);
+        for (long[] wall : WALL) {
+            for (int cell = 0; cell < wall.length; cell++) {
+                wall[cell] = random.nextLong();
+            }
+        }
+        for (long[][][] lines : PATTERN_LINE) {
+            for (long[][] line : lines) {
+                fill(line, random);
+            }
+        }
+        for (long[][] floor : FLOOR) {
+            fill(floor, random);
+        }
+        for (long[][] hand : HAND) {
+            fill(hand, random);
+        }
+        for (int p = 0; p < MAX_PLAYERS; p++) {
+            CURRENT_PLAYER[p] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    private static void fill(long[][] table, SplittableRandom random) {
+        for (long[] row : table) {
+            for (int count = 1; count < row.length; count++) {
+                row[count] = random.nextLong();
+            }
+        }
+    }
+
+    // Keys of the occupied cells whose state changed between two wall masks
+    static long wallDelta(int seat, int oldMask, int newMask) {
+        long delta = 0;
+        for (int changed = oldMask ^ newMask; changed != 0; changed &= changed - 1) {
+            delta ^= WALL[seat][Integer.numberOfTrailingZeros(changed)];
+        }
+        return delta;
+    }
+
+    // Key for a factory by its contents alone, independent of which factory holds them
+    static long factoryContent(int contentCode) {
+        if (contentCode == 0) {
+            return 0;
+        }
+        long z = (contentCode + SEED) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    static long count(long[] keys, int count) {
+        return keys[Math.min(count, keys.length - 1)];
+    }
+}
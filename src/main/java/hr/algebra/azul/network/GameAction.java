@@ -1,5 +1,6 @@
 package hr.algebra.azul.network;
 
+import hr.algebra.azul.model.Move;
 import hr.algebra.azul.model.TileColor;
 import java.io.Serializable;
 
@@ -25,6 +26,24 @@ public class GameAction implements Serializable {
         this.patternLineIndex = patternLineIndex;
     }
 
+    public static GameAction fromMoveCode(int code) {
+        return switch (Move.kind(code)) {
+            case Move.KIND_SELECT -> new GameAction(ActionType.SELECT_TILES, Move.source(code), Move.color(code), -1);
+            case Move.KIND_PLACE -> new GameAction(ActionType.PLACE_TILES, -1, Move.color(code), Move.line(code));
+            case Move.KIND_END_TURN -> new GameAction(ActionType.END_TURN, -1, null, -1);
+            default -> throw new IllegalArgumentException(
+                    "Complete move " + Move.toString(code) + " must be split with Move.selectPart/placePart");
+        };
+    }
+
+    public int toMoveCode() {
+        return switch (type) {
+            case SELECT_TILES -> Move.select(factoryIndex, selectedColor);
+            case PLACE_TILES -> Move.place(selectedColor, patternLineIndex);
+            case END_TURN -> Move.endTurn();
+        };
+    }
+
     // Getters and setters
     public ActionType getType() { return type; }
     public void setType(ActionType type) { this.type = type; }
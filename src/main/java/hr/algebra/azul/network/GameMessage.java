@@ -1,5 +1,6 @@
 package hr.algebra.azul.network;
 
+import hr.algebra.azul.model.Move;
 import java.io.Serializable;
 
 public class GameMessage implements Serializable {
@@ -7,7 +8,9 @@ public class GameMessage implements Serializable {
 
     private MessageType type;
     private String playerId;
-    private GameAction action;
+    // Actions travel as a 16-bit Move code; the GameAction object is rebuilt on demand
+    private short actionCode;
+    private transient GameAction action;
     private GameState gameState;
     private String chatContent;  // For chat messages
 
@@ -15,6 +18,7 @@ public class GameMessage implements Serializable {
         this.type = type;
         this.playerId = playerId;
         this.action = action;
+        this.actionCode = Move.toShort(action == null ? Move.NONE : action.toMoveCode());
         this.gameState = gameState;
     }
 
@@ -30,8 +34,19 @@ public class GameMessage implements Serializable {
     public String getPlayerId() { return playerId; }
     public void setPlayerId(String playerId) { this.playerId = playerId; }
 
-    public GameAction getAction() { return action; }
-    public void setAction(GameAction action) { this.action = action; }
+    public GameAction getAction() {
+        if (action == null && getActionCode() != Move.NONE) {
+            action = GameAction.fromMoveCode(getActionCode());
+        }
+        return action;
+    }
+
+    public void setAction(GameAction action) {
+        this.action = action;
+        this.actionCode = Move.toShort(action == null ? Move.NONE : action.toMoveCode());
+    }
+
+    public int getActionCode() { return Move.fromShort(actionCode); }
 
     public GameState getGameState() { return gameState; }
     public void setGameState(GameState gameState) { this.gameState = gameState; }
@@ -47,7 +62,7 @@ public class GameMessage implements Serializable {
         return "GameMessage{" +
                 "type=" + type +
                 ", playerId='" + playerId + '\'' +
-                ", action=" + action +
+                ", action=" + getAction() +
                 ", gameState=" + gameState +
                 '}';
     }
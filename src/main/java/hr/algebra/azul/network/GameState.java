@@ -29,6 +29,11 @@ public class GameState implements Serializable {
         return game;
     }
 
+    // Clients can compare this instead of shipping the whole state to detect divergence
+    public long getPositionHash() {
+        return game.getZobristHash();
+    }
+
     public GamePhase getCurrentPhase() {
         return currentPhase;
     }
@@ -0,0 +1,77 @@
+package hr.algebra.azul.network;
+
+import hr.algebra.azul.model.Game;
+import hr.algebra.azul.model.GameSnapshot;
+import hr.algebra.azul.model.Player;
+import hr.algebra.azul.model.SnapshotDelta;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Latest committed position of a game as an immutable snapshot. The thread that mutates the Game
+// publishes after each committed move; autosave, serialization and UI refresh read it from any
+// thread without locks and never see a half-applied move.
+public class GameStatePublisher {
+    private static final ConcurrentHashMap<String, GameStatePublisher> publishers = new ConcurrentHashMap<>();
+
+    private final AtomicReference<VersionedSnapshot> latest = new AtomicReference<>();
+
+    // For the thread that owns the game; readers use latest(gameId), which never creates a publisher
+    public static GameStatePublisher forGame(String gameId) {
+        return publishers.computeIfAbsent(gameId, id -> new GameStatePublisher());
+    }
+
+    // Null when nothing has been published for the game, or it has ended and been removed
+    public static VersionedSnapshot latest(String gameId) {
+        GameStatePublisher publisher = publishers.get(gameId);
+        return publisher == null ? null : publisher.latest();
+    }
+
+    // Call when the game ends so the registry does not keep one publisher per game played
+    public static void remove(String gameId) {
+        publishers.remove(gameId);
+    }
+
+    // Must be called by the thread that owns the Game, after the move is complete
+    public VersionedSnapshot publish(Game game) {
+        GameSnapshot snapshot = GameSnapshot.of(game);
+        List<String> playerNames = game.getPlayers().stream().map(Player::getName).toList();
+        long positionHash = game.getZobristHash();
+        long timestamp = System.currentTimeMillis();
+        return latest.updateAndGet(previous -> new VersionedSnapshot(
+                previous == null ? 1 : previous.version() + 1,
+                snapshot,
+                positionHash,
+                timestamp,
+                playerNames
+        ));
+    }
+
+    // Null until the first publish
+    public VersionedSnapshot latest() {
+        return latest.get();
+    }
+
+    public long getVersion() {
+        VersionedSnapshot current = latest.get();
+        return current == null ? 0 : current.version();
+    }
+
+    public record VersionedSnapshot(
+            long version,
+            GameSnapshot snapshot,
+            long positionHash,
+            long timestamp,
+            List<String> playerNames   // by seat, for readers that key players by name
+    ) {
+        // A private Game rebuilt from the snapshot, safe to read or mutate off the game thread
+        public Game toGame() {
+            return snapshot.toGame();
+        }
+
+        // Compact update for a reader that already holds an older publication of the same game
+        public SnapshotDelta deltaSince(VersionedSnapshot base) {
+            return SnapshotDelta.between(base.version(), base.snapshot(), version, snapshot);
+        }
+    }
+}
@@ -12,6 +12,7 @@ public class MultiplayerGameManager {
     private static final int TURN_DURATION = 30000; // 30 seconds
     private static final int STATE_SYNC_INTERVAL = 5000; // 5 seconds
 
+    private final String gameId;
     private final GameClient gameClient;
     private final String playerId;
     private final List<String> playerOrder;
@@ -21,13 +22,16 @@ public class MultiplayerGameManager {
     private SynchronizedTurnManager turnManager;
     private volatile boolean isRunning;
     private final Object stateLock = new Object();
+    private final GameStatePublisher statePublisher;
 
     private Consumer<GameState> onStateUpdate;
     private Consumer<String> onPlayerTimeout;
     private Consumer<Integer> onTurnTick;
     private Consumer<Void> onTurnTimeout;
 
-    public MultiplayerGameManager(GameClient gameClient, String playerId, List<String> players) {
+    public MultiplayerGameManager(String gameId, GameClient gameClient, String playerId, List<String> players) {
+        this.gameId = gameId;
+        this.statePublisher = GameStatePublisher.forGame(gameId);
         this.gameClient = gameClient;
         this.playerId = playerId;
         this.playerOrder = new ArrayList<>(players);
@@ -57,6 +61,7 @@ public class MultiplayerGameManager {
 
             gameState = new NetworkGameState(new GameState(game));
             gameState.startTurn(playerOrder.get(0)); // First player starts
+            statePublisher.publish(game);
             broadcastGameState();
         }
 
@@ -124,6 +129,7 @@ public class MultiplayerGameManager {
         synchronized (stateLock) {
             if (gameState.isValidMove(message.getPlayerId(), message.getAction())) {
                 gameState.applyMove(message.getAction());
+                statePublisher.publish(gameState.getGame());
                 turnManager.handleMove(message.getAction());
                 updateGameState();
             }
@@ -135,6 +141,7 @@ public class MultiplayerGameManager {
             if (message.getGameState() != null &&
                     message.getGameState().getVersion() > gameState.getGameState().getVersion()) {
                 gameState = new NetworkGameState(message.getGameState());
+                statePublisher.publish(gameState.getGame());
                 updateGameState();
             }
         }
@@ -214,6 +221,7 @@ public class MultiplayerGameManager {
             turnManager.cleanup();
         }
         scheduler.shutdownNow();
+        GameStatePublisher.remove(gameId);
     }
 
     // Setters for callbacks
@@ -144,7 +144,7 @@ public class NetworkGameState implements Serializable {
 
             player.clearNegativeLine();
             negativeLine.forEach(color ->
-                    player.addTilesToNegativeLine(List.of(new Tile(color))));
+                    player.addTilesToNegativeLine(color, 1));
 
             player.setScore(score);
         }
@@ -187,7 +187,7 @@ public class NetworkGameState implements Serializable {
             for (int i = 0; i < 5; i++) {
                 for (int j = 0; j < 5; j++) {
                     if (tiles[i][j] && colors[i][j] != null) {
-                        wall.placeTile(new Tile(colors[i][j]), i);
+                        wall.placeTile(Tile.of(colors[i][j]), i);
                     }
                 }
             }
@@ -211,7 +211,7 @@ public class NetworkGameState implements Serializable {
         public void applyTo(PatternLines patternLines) {
             for (int i = 0; i < lines.size(); i++) {
                 List<Tile> tilesToAdd = lines.get(i).stream()
-                        .map(Tile::new)
+                        .map(Tile::of)
                         .toList();
                 patternLines.addTiles(tilesToAdd, i);
             }
@@ -125,60 +125,15 @@ public class GameEndManager {
     }
 
     private int calculateRowBonus(Wall wall) {
-        int bonus = 0;
-        for (int row = 0; row < 5; row++) {
-            if (isRowComplete(wall, row)) {
-                bonus += 2;
-            }
-        }
-        return bonus;
+        return wall.getCompletedRowCount() * 2;
     }
 
     private int calculateColumnBonus(Wall wall) {
-        int bonus = 0;
-        for (int col = 0; col < 5; col++) {
-            if (isColumnComplete(wall, col)) {
-                bonus += 7;
-            }
-        }
-        return bonus;
+        return wall.getCompletedColumnCount() * 7;
     }
 
     private int calculateColorSetBonus(Wall wall) {
-        Map<TileColor, Integer> colorCounts = new EnumMap<>(TileColor.class);
-
-        // Count tiles of each color
-        for (int i = 0; i < 5; i++) {
-            for (int j = 0; j < 5; j++) {
-                if (wall.hasTile(i, j)) {
-                    TileColor color = wall.getTileColor(i, j);
-                    colorCounts.merge(color, 1, Integer::sum);
-                }
-            }
-        }
-
-        // Award bonus for completed color sets
-        return (int) colorCounts.values().stream()
-                .filter(count -> count == 5)
-                .count() * 10;
-    }
-
-    private boolean isRowComplete(Wall wall, int row) {
-        for (int col = 0; col < 5; col++) {
-            if (!wall.hasTile(row, col)) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    private boolean isColumnComplete(Wall wall, int col) {
-        for (int row = 0; row < 5; row++) {
-            if (!wall.hasTile(row, col)) {
-                return false;
-            }
-        }
-        return true;
+        return wall.getCompletedColorCount() * 10;
     }
 
     private void broadcastGameEnd(Map<String, Integer> scores) {
@@ -12,9 +12,10 @@ public class GameMoveManager {
     private final String gameId;
     private final GameClient gameClient;
     private final Map<String, PlayerMoveState> playerStates;
-    private final Queue<GameMove> moveHistory;
+    private final MoveJournal moveHistory;
     private final Object moveLock = new Object();
     private final GameStateManager stateManager;
+    private final GameStatePublisher statePublisher;
     private volatile String currentPlayerId;
 
     public GameMoveManager(String gameId, GameClient gameClient, GameStateManager stateManager) {
@@ -22,7 +23,8 @@ public class GameMoveManager {
         this.gameClient = gameClient;
         this.stateManager = stateManager;
         this.playerStates = new ConcurrentHashMap<>();
-        this.moveHistory = new ConcurrentLinkedQueue<>();
+        this.moveHistory = new MoveJournal();
+        this.statePublisher = GameStatePublisher.forGame(gameId);
     }
 
     public boolean validateAndProcessMove(GameMove move) {
@@ -32,9 +34,18 @@ public class GameMoveManager {
                 return false;
             }
 
+            int code;
+            try {
+                code = move.toMoveCode();
+            } catch (IllegalArgumentException e) {
+                LOGGER.warning("Move cannot be encoded: " + e.getMessage());
+                return false;
+            }
+
+            // Journaled first so a failed move is the one rolled back, never the previous entry
+            moveHistory.append(code);
             try {
                 processMove(move);
-                moveHistory.add(move);
                 return true;
             } catch (Exception e) {
                 LOGGER.severe("Error processing move: " + e.getMessage());
@@ -76,12 +87,9 @@ public class GameMoveManager {
             if (selection.factoryIndex() >= game.getFactories().size()) {
                 return false;
             }
-            Factory factory = game.getFactories().get(selection.factoryIndex());
-            return factory.getTiles().stream()
-                    .anyMatch(tile -> tile.getColor() == selection.color());
+            return game.getFactories().get(selection.factoryIndex()).hasColor(selection.color());
         } else {
-            return game.getCentralArea().getTiles().stream()
-                    .anyMatch(tile -> tile.getColor() == selection.color());
+            return game.getCentralArea().hasColor(selection.color());
         }
     }
 
@@ -98,7 +106,7 @@ public class GameMoveManager {
         Game game = stateManager.getCurrentState().toGame();
         Player currentPlayer = game.getCurrentPlayer();
 
-        if (!currentPlayer.getHand().containsKey(placement.color())) {
+        if (currentPlayer.getHandCount(placement.color()) == 0) {
             return false;
         }
 
@@ -123,6 +131,7 @@ public class GameMoveManager {
             case END_TURN -> processEndTurn(game);
         }
 
+        statePublisher.publish(game);
         stateManager.updateGameState(NetworkGameState.fromGame(
                 game,
                 stateManager.getPlayerMapping())
@@ -137,7 +146,7 @@ public class GameMoveManager {
         if (selection.factoryIndex() >= 0) {
             Factory factory = game.getFactories().get(selection.factoryIndex());
             selectedTiles = factory.takeTiles(selection.color());
-            game.getCentralArea().addTiles(factory.getRemainingTiles());
+            factory.moveRemainingTiles(game.getCentralArea());
         } else {
             selectedTiles = game.getCentralArea().takeTiles(selection.color());
         }
@@ -165,10 +174,11 @@ public class GameMoveManager {
         updateCurrentPlayer(game.getCurrentPlayer().getName());
     }
 
+    // Only called while the failed move is the last journal entry
     private void rollbackLastMove() {
-        GameMove lastMove = moveHistory.poll();
-        if (lastMove != null) {
-            LOGGER.info("Rolling back move: " + lastMove);
+        int lastMove = moveHistory.removeLast();
+        if (lastMove != Move.NONE) {
+            LOGGER.info("Rolling back move: " + Move.toString(lastMove));
         }
     }
 
@@ -208,6 +218,24 @@ public class GameMoveManager {
                     null
             );
         }
+
+        public static GameMove fromMoveCode(String playerId, int code) {
+            return switch (Move.kind(code)) {
+                case Move.KIND_SELECT -> selectTiles(playerId, Move.source(code), Move.color(code));
+                case Move.KIND_PLACE -> placeTiles(playerId, Move.color(code), Move.line(code));
+                case Move.KIND_END_TURN -> endTurn(playerId);
+                default -> throw new IllegalArgumentException(
+                        "Complete move " + Move.toString(code) + " must be split with Move.selectPart/placePart");
+            };
+        }
+
+        public int toMoveCode() {
+            return switch (type) {
+                case SELECT_TILES -> Move.select(tileSelection.factoryIndex(), tileSelection.color());
+                case PLACE_TILES -> Move.place(tilePlacement.color(), tilePlacement.patternLineIndex());
+                case END_TURN -> Move.endTurn();
+            };
+        }
     }
 
     public record TileSelection(int factoryIndex, TileColor color) {}
@@ -258,6 +286,9 @@ public class GameMoveManager {
 
     public void clean() {
         playerStates.clear();
-        moveHistory.clear();
+        synchronized (moveLock) {
+            moveHistory.clear();
+        }
+        GameStatePublisher.remove(gameId);
     }
 }
@@ -19,16 +19,15 @@ public class GameStatePersistenceManager {
 
     private final String gameId;
     private final GameClient gameClient;
-    private final Map<String, PlayerConnectionState> playerStates;
     private final ScheduledExecutorService autoSaveExecutor;
     private final ExecutorService taskExecutor;
     private final Queue<PersistenceTask> taskQueue;
     private volatile boolean isRunning;
+    private Long lastSavedPositionHash; // only touched by the task processor thread
 
     public GameStatePersistenceManager(String gameId, GameClient gameClient) {
         this.gameId = gameId;
         this.gameClient = gameClient;
-        this.playerStates = new ConcurrentHashMap<>();
         this.autoSaveExecutor = Executors.newSingleThreadScheduledExecutor();
         this.taskExecutor = Executors.newSingleThreadExecutor();
         this.taskQueue = new ConcurrentLinkedQueue<>();
@@ -151,25 +150,37 @@ public class GameStatePersistenceManager {
             Path tempPath = Paths.get(TEMP_DIR, filename + ".tmp");
 
             NetworkGameState currentState = NetworkGameState.getCurrentState(gameId);
+            // The live Game may be mid-move on another thread; the published snapshot is always whole
+            GameStatePublisher.VersionedSnapshot published = GameStatePublisher.latest(gameId);
+            Long positionHash = published != null ? published.positionHash() : null;
+
+            // Auto saves of an unchanged position would only rotate out older distinct saves
+            if (task.trigger == SaveTrigger.AUTO && positionHash != null && positionHash.equals(lastSavedPositionHash)) {
+                task.future().complete(true);
+                return;
+            }
+
             GameStateSnapshot snapshot = new GameStateSnapshot(
                     saveId,
                     gameId,
                     LocalDateTime.now(),
                     task.trigger,
-                    currentState
+                    currentState,
+                    published != null ? published.snapshot() : null
             );
 
             // Save to temporary file first
             Files.writeString(tempPath, snapshot.toString());
             Files.move(tempPath, savePath, StandardCopyOption.ATOMIC_MOVE);
+            lastSavedPositionHash = positionHash;
 
             // Clean up old saves if we exceed the maximum
             cleanupOldSaves();
 
-            task.getFuture().complete(true);
+            task.future().complete(true);
         } catch (Exception e) {
             LOGGER.severe("Failed to save game state: " + e.getMessage());
-            task.getFuture().complete(false);
+            task.future().complete(false);
         }
     }
 
@@ -185,7 +196,7 @@ public class GameStatePersistenceManager {
                 saves = files
                     .filter(path -> path.toString().endsWith(".json"))
                     .filter(path -> path.getFileName().toString().startsWith(gameId))
-                    .sorted(Comparator.comparingLong(path -> {
+                    .sorted(Comparator.comparingLong((Path path) -> {
                         try {
                             return Files.getLastModifiedTime(path).toMillis();
                         } catch (IOException e) {
@@ -215,16 +226,16 @@ public class GameStatePersistenceManager {
             String filename = String.format("%s_%s.json", gameId, task.saveId);
             Path savePath = Paths.get(SAVE_DIR, filename);
             if (!Files.exists(savePath)) {
-                task.getFuture().complete(Optional.empty());
+                task.future().complete(Optional.empty());
                 return;
             }
 
             String content = Files.readString(savePath);
             GameStateSnapshot snapshot = GameStateSnapshot.fromString(content);
-            task.getFuture().complete(Optional.of(snapshot.gameState()));
+            task.future().complete(Optional.of(snapshot.gameState()));
         } catch (Exception e) {
             LOGGER.severe("Failed to load game state: " + e.getMessage());
-            task.getFuture().complete(Optional.empty());
+            task.future().complete(Optional.empty());
         }
     }
 
@@ -255,7 +266,8 @@ public class GameStatePersistenceManager {
             String gameId,
             LocalDateTime timestamp,
             SaveTrigger trigger,
-            NetworkGameState gameState
+            NetworkGameState gameState,
+            GameSnapshot position
     ) {
         public static GameStateSnapshot fromString(String content) {
             // Implementation of deserialization
@@ -147,6 +147,13 @@ public class ScoreSynchronizer {
                     currentScores.put(entry.getKey(), state.getLastUpdate().score());
                 }
             }
+            // Scores of the last committed position, published by the game thread, win over reported updates
+            GameStatePublisher.VersionedSnapshot published = GameStatePublisher.latest(gameId);
+            if (published != null) {
+                for (int i = 0; i < published.playerNames().size(); i++) {
+                    currentScores.put(published.playerNames().get(i), published.snapshot().getScore(i));
+                }
+            }
 
             ScoreSync sync = new ScoreSync(
                     currentScores,
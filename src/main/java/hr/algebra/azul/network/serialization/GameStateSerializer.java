@@ -68,11 +68,16 @@ public class GameStateSerializer {
         });
     }
 
+    // Call from the thread that owns the Game: the position is captured here, so the serializer
+    // thread never reads the live Game and the payload is exactly the state that was passed in
     public CompletableFuture<byte[]> serializeGameState(NetworkGameState state) {
         CompletableFuture<byte[]> future = new CompletableFuture<>();
+        Game game = state.getGame();
         taskQueue.offer(new SerializationTask(
                 TaskType.SERIALIZE,
                 state,
+                GameSnapshot.of(game),
+                game.getPlayers().stream().map(Player::getName).toList(),
                 null,
                 future
         ));
@@ -84,6 +89,8 @@ public class GameStateSerializer {
         taskQueue.offer(new SerializationTask(
                 TaskType.DESERIALIZE,
                 null,
+                null,
+                null,
                 data,
                 future
         ));
@@ -103,7 +110,7 @@ public class GameStateSerializer {
 
     private void processSerialize(SerializationTask task) {
         try {
-            GameStateSnapshot snapshot = createSnapshot(task.state);
+            GameStateSnapshot snapshot = createSnapshot(task);
             String checksum = calculateStateChecksum(snapshot);
             snapshot = snapshot.withChecksum(checksum);
 
@@ -136,22 +143,25 @@ public class GameStateSerializer {
         }
     }
 
-    private GameStateSnapshot createSnapshot(NetworkGameState state) {
+    private GameStateSnapshot createSnapshot(SerializationTask task) {
+        NetworkGameState state = task.state;
         return new GameStateSnapshot(
                 UUID.randomUUID().toString(),
                 state.getGameId(),
                 LocalDateTime.now(),
-                compressGameState(state),
+                compressGameState(state, task.position, task.seatNames),
                 createPlayerStates(state),
                 null // checksum will be added later
         );
     }
 
-    private CompressedGameState compressGameState(NetworkGameState state) {
+    private CompressedGameState compressGameState(NetworkGameState state, GameSnapshot position, List<String> seatNames) {
+        // A Game rebuilt from a snapshot has placeholder names, so boards are keyed by the names captured with it
+        Game game = position.toGame();
         return new CompressedGameState(
-                compressFactories(state.getGame().getFactories()),
-                compressCentralArea(state.getGame().getCentralArea()),
-                compressPlayerBoards(state.getGame().getPlayers()),
+                compressFactories(game.getFactories()),
+                compressCentralArea(game.getCentralArea()),
+                compressPlayerBoards(game.getPlayers(), seatNames),
                 state.getCurrentPlayerId(),
                 state.getCurrentPhase()
         );
@@ -175,12 +185,12 @@ public class GameStateSerializer {
         );
     }
 
-    private Map<String, CompressedPlayerBoard> compressPlayerBoards(List<Player> players) {
-        return players.stream()
-                .collect(Collectors.toMap(
-                        Player::getName,
-                        this::compressPlayerBoard
-                ));
+    private Map<String, CompressedPlayerBoard> compressPlayerBoards(List<Player> players, List<String> seatNames) {
+        Map<String, CompressedPlayerBoard> boards = new HashMap<>();
+        for (int seat = 0; seat < players.size(); seat++) {
+            boards.put(seatNames.get(seat), compressPlayerBoard(players.get(seat)));
+        }
+        return boards;
     }
 
     private CompressedPlayerBoard compressPlayerBoard(Player player) {
@@ -359,6 +369,8 @@ public class GameStateSerializer {
     private record SerializationTask(
             TaskType type,
             NetworkGameState state,
+            GameSnapshot position,      // captured when a serialize task is queued
+            List<String> seatNames,
             byte[] data,
             CompletableFuture<?> future
     ) {}
@@ -0,0 +1,598 @@
+package hr.algebra.azul.simulation;
+
+import hr.algebra.azul.model.GameSnapshot;
+import hr.algebra.azul.model.Move;
+import hr.algebra.azul.model.Player;
+import hr.algebra.azul.model.TileBag;
+import hr.algebra.azul.model.TileColor;
+import hr.algebra.azul.model.WallMask;
+import java.util.Arrays;
+
+// Plays many games in lockstep with uniformly random legal moves, the same move distribution as
+// MovePolicy.random, without any Game objects. State is kept as structure-of-arrays: one slot per
+// game (or per game and seat, called a board) in flat primitive arrays. Factories are count codes
+// (3 bits per color ordinal), pattern lines are packed 6 bits per line (color ordinal + 1, count),
+// and floors are packed 3 bits per color. Each step plays one move in every running game; games
+// whose round ended in that step are tiled and scored together, a row at a time, by WallKernels.
+// Game i's random stream is derived from the seed and i, so results do not depend on batch size.
+public class BatchSimulator {
+    private static final long SEED_STRIDE = 0x9E3779B97F4A7C15L;
+    private static final int COLORS = 5;
+    private static final int LINES = 5;
+    private static final int FACTORY_SIZE = 4;
+    private static final int MAX_FLOOR = 7;
+    private static final TileColor[] TILE_COLORS = TileColor.values();
+    // Colors whose cell is still free in a wall row, by row and the row's wall bits
+    private static final int[][] FREE_COLORS = new int[LINES][1 << WallMask.SIZE];
+
+    static {
+        for (int row = 0; row < LINES; row++) {
+            for (int bits = 0; bits < 1 << WallMask.SIZE; bits++) {
+                for (int color = 0; color < COLORS; color++) {
+                    if ((bits & (1 << columnFor(color, row))) == 0) {
+                        FREE_COLORS[row][bits] |= 1 << color;
+                    }
+                }
+            }
+        }
+    }
+
+    private final int games;
+    private final int players;
+    private final int factories;
+    private final long seed;
+    private final int moveLimit;
+
+    private final long[] randomStates;
+    private final int[] factoryCodes;
+    private final int[] centerCounts;
+    private final int[] bagCounts;
+    private final int[] discardCounts;
+    private final int[] bagSizes;
+    private final int[] discardSizes;
+    private final int[] currentPlayers;
+    private final int[] moveCounts;
+    // Tiles left in the factories and the center; the round is over at zero
+    private final int[] tableTiles;
+    private final boolean[] ended;
+    private final int[] walls;
+    private final int[] lines;
+    private final int[] floors;
+    private final int[] floorSizes;
+    private final int[] scores;
+
+    // Games still being played, and those whose round ended during the current step
+    private final int[] running;
+    private int runningCount;
+    private final int[] roundEnded;
+    // Per-board scratch for the scoring kernels
+    private final int[] kernelBoards;
+    private final int[] kernelMasks;
+    private final int[] kernelColumns;
+    private final int[] kernelScores;
+    private final int[] targetMasks = new int[COLORS];
+
+    private BatchSimulator(Builder builder) {
+        this.games = builder.games;
+        this.players = builder.players;
+        this.factories = players * 2 + 1;
+        this.seed = builder.seed;
+        this.moveLimit = builder.moveLimit;
+        int boards = games * players;
+        randomStates = new long[games];
+        factoryCodes = new int[games * factories];
+        centerCounts = new int[games * COLORS];
+        bagCounts = new int[games * COLORS];
+        discardCounts = new int[games * COLORS];
+        bagSizes = new int[games];
+        discardSizes = new int[games];
+        currentPlayers = new int[games];
+        moveCounts = new int[games];
+        tableTiles = new int[games];
+        ended = new boolean[games];
+        walls = new int[boards];
+        lines = new int[boards];
+        floors = new int[boards];
+        floorSizes = new int[boards];
+        scores = new int[boards];
+        running = new int[games];
+        roundEnded = new int[games];
+        kernelBoards = new int[boards];
+        kernelMasks = new int[boards];
+        kernelColumns = new int[boards];
+        kernelScores = new int[boards];
+    }
+
+    // Sets up every game from the seed with full bags and filled factories
+    public void reset() {
+        Arrays.fill(factoryCodes, 0);
+        Arrays.fill(centerCounts, 0);
+        Arrays.fill(bagCounts, TileBag.TILES_PER_COLOR);
+        Arrays.fill(bagSizes, TileBag.TILES_PER_COLOR * COLORS);
+        Arrays.fill(discardCounts, 0);
+        Arrays.fill(discardSizes, 0);
+        Arrays.fill(currentPlayers, 0);
+        Arrays.fill(moveCounts, 0);
+        Arrays.fill(tableTiles, 0);
+        Arrays.fill(ended, false);
+        Arrays.fill(walls, WallMask.EMPTY);
+        Arrays.fill(lines, 0);
+        Arrays.fill(floors, 0);
+        Arrays.fill(floorSizes, 0);
+        Arrays.fill(scores, 0);
+        for (int g = 0; g < games; g++) {
+            randomStates[g] = seed + g * SEED_STRIDE;
+            fillFactories(g);
+            running[g] = g;
+        }
+        runningCount = games;
+    }
+
+    // Replaces one game's position with a Game's, keeping its random stream, so tests can follow a
+    // Game move by move. Call between reset and the first step.
+    void load(int game, GameSnapshot position) {
+        if (position.getPlayerCount() != players || position.isGameEnded()) {
+            throw new IllegalArgumentException("Position must be a running " + players + "-player game");
+        }
+        int base = game * COLORS;
+        tableTiles[game] = 0;
+        bagSizes[game] = 0;
+        discardSizes[game] = 0;
+        for (int f = 0; f < factories; f++) {
+            int code = 0;
+            for (TileColor color : TILE_COLORS) {
+                int count = position.getFactoryTileCount(f, color);
+                code |= count << (color.ordinal() * 3);
+                tableTiles[game] += count;
+            }
+            factoryCodes[game * factories + f] = code;
+        }
+        for (TileColor color : TILE_COLORS) {
+            int c = color.ordinal();
+            centerCounts[base + c] = position.getCenterCount(color);
+            bagCounts[base + c] = position.getBagCount(color);
+            discardCounts[base + c] = position.getDiscardCount(color);
+            tableTiles[game] += centerCounts[base + c];
+            bagSizes[game] += bagCounts[base + c];
+            discardSizes[game] += discardCounts[base + c];
+        }
+        currentPlayers[game] = position.getCurrentPlayerIndex();
+        moveCounts[game] = 0;
+        ended[game] = false;
+        for (int seat = 0; seat < players; seat++) {
+            int board = game * players + seat;
+            walls[board] = position.getWallMask(seat);
+            scores[board] = position.getScore(seat);
+            lines[board] = 0;
+            for (int line = 0; line < LINES; line++) {
+                int count = position.getPatternLineCount(seat, line);
+                if (count > 0) {
+                    lines[board] |= ((position.getPatternLineColor(seat, line).ordinal() + 1) << 3 | count) << (line * 6);
+                }
+            }
+            floors[board] = 0;
+            floorSizes[board] = 0;
+            for (TileColor color : TILE_COLORS) {
+                int count = position.getFloorCount(seat, color);
+                floors[board] += count << (color.ordinal() * 3);
+                floorSizes[board] += count;
+            }
+        }
+    }
+
+    // Plays one move in every running game and returns how many are still running. Games that hit
+    // the move limit or have no legal move stop unfinished, like stalled SimulationRunner games.
+    public int step() {
+        int live = 0;
+        int roundEnds = 0;
+        for (int i = 0; i < runningCount; i++) {
+            int g = running[i];
+            if (moveCounts[g] == moveLimit || !playRandomMove(g)) {
+                continue;
+            }
+            moveCounts[g]++;
+            if (tableTiles[g] == 0) {
+                roundEnded[roundEnds++] = g;
+            } else {
+                currentPlayers[g] = (currentPlayers[g] + 1) % players;
+            }
+            running[live++] = g;
+        }
+        runningCount = live;
+        if (roundEnds > 0) {
+            endRounds(roundEnds);
+        }
+        return runningCount;
+    }
+
+    public SimulationReport run() {
+        long allocatedBefore = SimulationRunner.AllocationCounter.currentThreadBytes();
+        long start = System.nanoTime();
+        reset();
+        while (step() > 0) {
+            // every game advances one move per step
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocatedAfter = SimulationRunner.AllocationCounter.currentThreadBytes();
+
+        SimulationRunner.Tally tally = new SimulationRunner.Tally(players);
+        int[] seatScores = new int[players];
+        for (int g = 0; g < games; g++) {
+            System.arraycopy(scores, g * players, seatScores, 0, players);
+            tally.add(seatScores, moveCounts[g], !ended[g], 0);
+        }
+        tally.addAllocatedBytes(allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore);
+        return tally.toReport(elapsed);
+    }
+
+    private boolean playRandomMove(int g) {
+        int board = g * players + currentPlayers[g];
+        // Number of sources holding each color, 4 bits per color ordinal
+        int sources = 0;
+        for (int f = g * factories, end = f + factories; f < end; f++) {
+            sources += presence(factoryCodes[f]);
+        }
+        for (int color = 0; color < COLORS; color++) {
+            sources += Integer.signum(centerCounts[g * COLORS + color]) << (color * 4);
+        }
+        fillTargetMasks(board);
+        int total = 0;
+        for (int color = 0; color < COLORS; color++) {
+            total += (sources >>> (color * 4) & 0xF) * Integer.bitCount(targetMasks[color]);
+        }
+        if (total == 0) {
+            return false;
+        }
+
+        int pick = nextInt(g, total);
+        int color = 0;
+        for (int weight; pick >= (weight = (sources >>> (color * 4) & 0xF) * Integer.bitCount(targetMasks[color])); color++) {
+            pick -= weight;
+        }
+        int targets = targetMasks[color];
+        int targetCount = Integer.bitCount(targets);
+        int sourceIndex = pick / targetCount;
+        for (int skip = pick % targetCount; skip > 0; skip--) {
+            targets &= targets - 1;
+        }
+        int line = Integer.numberOfTrailingZeros(targets);
+
+        int taken = takeTiles(g, color, sourceIndex);
+        tableTiles[g] -= taken;
+        int overflow = line == Move.FLOOR ? taken : addToLine(board, color, taken, line);
+        int excess = addToFloor(board, color, overflow);
+        discard(g, color, excess);
+        return true;
+    }
+
+    // Bit 4c set when a factory count code holds color c
+    private static int presence(int code) {
+        int present = (code | code >>> 1 | code >>> 2) & 0x1249;
+        return present & 0x1 | (present & 0x8) << 1 | (present & 0x40) << 2 | (present & 0x200) << 3
+                | (present & 0x1000) << 4;
+    }
+
+    // targetMasks[c] gets bit i set when pattern line i accepts color c; the floor always does.
+    // The accepted colors of every line form a 5x5 bit matrix laid out like a wall mask (line as
+    // row, color as column), so each color's lines are gathered like a wall column.
+    private void fillTargetMasks(int board) {
+        int packed = lines[board];
+        int wall = walls[board];
+        int accepted = 0;
+        for (int line = 0; line < LINES; line++) {
+            int slot = (packed >>> (line * 6)) & 0x3F;
+            int count = slot & 0x7;
+            int colors = count > line ? 0 : FREE_COLORS[line][WallMask.rowBits(wall, line)];
+            if (count > 0) {
+                colors &= 1 << ((slot >>> 3) - 1);
+            }
+            accepted |= colors << (line * WallMask.SIZE);
+        }
+        for (int color = 0; color < COLORS; color++) {
+            targetMasks[color] = WallMask.columnBits(accepted, color) | 1 << Move.FLOOR;
+        }
+    }
+
+    // Takes every tile of the color from the sourceIndex-th source holding it, factories first and
+    // the center last; a factory's other tiles go to the center
+    private int takeTiles(int g, int color, int sourceIndex) {
+        for (int f = g * factories, end = f + factories; f < end; f++) {
+            int code = factoryCodes[f];
+            int count = (code >>> (color * 3)) & 0x7;
+            if (count != 0 && sourceIndex-- == 0) {
+                for (int c = 0; c < COLORS; c++) {
+                    if (c != color) {
+                        centerCounts[g * COLORS + c] += (code >>> (c * 3)) & 0x7;
+                    }
+                }
+                factoryCodes[f] = 0;
+                return count;
+            }
+        }
+        int taken = centerCounts[g * COLORS + color];
+        centerCounts[g * COLORS + color] = 0;
+        return taken;
+    }
+
+    // Returns how many tiles did not fit on the line
+    private int addToLine(int board, int color, int count, int line) {
+        int shift = line * 6;
+        int onLine = (lines[board] >>> shift) & 0x7;
+        int added = Math.min(count, line + 1 - onLine);
+        lines[board] = lines[board] & ~(0x3F << shift) | ((color + 1) << 3 | (onLine + added)) << shift;
+        return count - added;
+    }
+
+    // Returns how many tiles did not fit on the floor
+    private int addToFloor(int board, int color, int count) {
+        int added = Math.min(count, MAX_FLOOR - floorSizes[board]);
+        floors[board] += added << (color * 3);
+        floorSizes[board] += added;
+        return count - added;
+    }
+
+    // Tiles, scores and refills every game in roundEnded[0..count), as Game.endRound does
+    private void endRounds(int count) {
+        int boards = 0;
+        for (int i = 0; i < count; i++) {
+            for (int seat = 0, board = roundEnded[i] * players; seat < players; seat++, board++) {
+                kernelBoards[boards] = board;
+                kernelMasks[boards] = walls[board];
+                kernelScores[boards] = 0;
+                boards++;
+            }
+        }
+
+        for (int row = 0; row < LINES; row++) {
+            int shift = row * 6;
+            for (int i = 0; i < boards; i++) {
+                int board = kernelBoards[i];
+                int slot = (lines[board] >>> shift) & 0x3F;
+                kernelColumns[i] = -1;
+                if ((slot & 0x7) != row + 1) {
+                    continue;
+                }
+                int color = (slot >>> 3) - 1;
+                int col = columnFor(color, row);
+                int g = board / players;
+                if (WallMask.hasTile(kernelMasks[i], row, col)) {
+                    discard(g, color, addToFloor(board, color, row + 1));
+                } else {
+                    kernelColumns[i] = col;
+                    discard(g, color, row);
+                }
+                lines[board] &= ~(0x3F << shift);
+            }
+            WallKernels.placeRow(kernelMasks, kernelColumns, row, kernelScores, boards);
+        }
+
+        for (int i = 0; i < boards; i++) {
+            int board = kernelBoards[i];
+            int g = board / players;
+            walls[board] = kernelMasks[i];
+            scores[board] += kernelScores[i] + Player.negativeLinePenalty(floorSizes[board]);
+            for (int color = 0; color < COLORS; color++) {
+                discard(g, color, (floors[board] >>> (color * 3)) & 0x7);
+            }
+            floors[board] = 0;
+            floorSizes[board] = 0;
+        }
+
+        // Every player tiles their wall before the game end check
+        int finishedBoards = 0;
+        for (int i = 0; i < count; i++) {
+            int g = roundEnded[i];
+            boolean gameOver = false;
+            for (int board = g * players, end = board + players; board < end; board++) {
+                gameOver |= WallMask.hasCompletedRow(walls[board]);
+            }
+            if (gameOver) {
+                ended[g] = true;
+                for (int board = g * players, end = board + players; board < end; board++) {
+                    kernelBoards[finishedBoards] = board;
+                    kernelMasks[finishedBoards] = walls[board];
+                    finishedBoards++;
+                }
+            } else {
+                fillFactories(g);
+                currentPlayers[g] = (currentPlayers[g] + 1) % players;
+            }
+        }
+        if (finishedBoards > 0) {
+            WallKernels.bonusScores(kernelMasks, kernelScores, finishedBoards);
+            for (int i = 0; i < finishedBoards; i++) {
+                scores[kernelBoards[i]] += kernelScores[i];
+            }
+            int live = 0;
+            for (int i = 0; i < runningCount; i++) {
+                if (!ended[running[i]]) {
+                    running[live++] = running[i];
+                }
+            }
+            runningCount = live;
+        }
+    }
+
+    // Mirrors Game.fillFactories: factories are filled in order until a full one cannot be drawn
+    private void fillFactories(int g) {
+        for (int f = g * factories, end = f + factories; f < end; f++) {
+            int code = 0;
+            int drawn = 0;
+            for (; drawn < FACTORY_SIZE; drawn++) {
+                int color = drawTile(g);
+                if (color < 0) {
+                    break;
+                }
+                code += 1 << (color * 3);
+            }
+            if (drawn < FACTORY_SIZE) {
+                for (int color = 0; color < COLORS; color++) {
+                    int count = (code >>> (color * 3)) & 0x7;
+                    bagCounts[g * COLORS + color] += count;
+                    bagSizes[g] += count;
+                }
+                return;
+            }
+            factoryCodes[f] = code;
+            tableTiles[g] += FACTORY_SIZE;
+        }
+    }
+
+    // Weighted draw over the bag's color counts, pouring the discard pile back in when it runs dry
+    private int drawTile(int g) {
+        int base = g * COLORS;
+        if (bagSizes[g] == 0) {
+            for (int color = 0; color < COLORS; color++) {
+                bagCounts[base + color] += discardCounts[base + color];
+                discardCounts[base + color] = 0;
+            }
+            bagSizes[g] = discardSizes[g];
+            discardSizes[g] = 0;
+            if (bagSizes[g] == 0) {
+                return -1;
+            }
+        }
+        // The color is the number of cumulative counts the pick reaches
+        int pick = nextInt(g, bagSizes[g]);
+        int below = bagCounts[base];
+        int color = pick >= below ? 1 : 0;
+        below += bagCounts[base + 1];
+        color += pick >= below ? 1 : 0;
+        below += bagCounts[base + 2];
+        color += pick >= below ? 1 : 0;
+        below += bagCounts[base + 3];
+        color += pick >= below ? 1 : 0;
+        bagCounts[base + color]--;
+        bagSizes[g]--;
+        return color;
+    }
+
+    private void discard(int g, int color, int count) {
+        discardCounts[g * COLORS + color] += count;
+        discardSizes[g] += count;
+    }
+
+    // SplitMix64 step, one stream per game
+    private int nextInt(int g, int bound) {
+        long z = randomStates[g] += SEED_STRIDE;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return (int) (((z >>> 32) * bound) >>> 32);
+    }
+
+    private static int columnFor(int color, int row) {
+        return WallMask.columnForColor(TILE_COLORS[color], row);
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getPlayers() {
+        return players;
+    }
+
+    public boolean isGameEnded(int game) {
+        return ended[game];
+    }
+
+    public int getMoveCount(int game) {
+        return moveCounts[game];
+    }
+
+    public int getCurrentPlayerIndex(int game) {
+        return currentPlayers[game];
+    }
+
+    public int getScore(int game, int seat) {
+        return scores[game * players + seat];
+    }
+
+    public int getWallMask(int game, int seat) {
+        return walls[game * players + seat];
+    }
+
+    public int getFloorCount(int game, int seat) {
+        return floorSizes[game * players + seat];
+    }
+
+    public int getPatternLineCount(int game, int seat, int line) {
+        return (lines[game * players + seat] >>> (line * 6)) & 0x7;
+    }
+
+    // Color ordinal on the line, or -1 when it is empty
+    public int getPatternLineColor(int game, int seat, int line) {
+        return ((lines[game * players + seat] >>> (line * 6 + 3)) & 0x7) - 1;
+    }
+
+    // Factory contents as a count code, 3 bits per color ordinal
+    public int getFactoryCode(int game, int factory) {
+        return factoryCodes[game * factories + factory];
+    }
+
+    public int getCenterCount(int game, int color) {
+        return centerCounts[game * COLORS + color];
+    }
+
+    public int getBagCount(int game, int color) {
+        return bagCounts[game * COLORS + color];
+    }
+
+    public int getDiscardCount(int game, int color) {
+        return discardCounts[game * COLORS + color];
+    }
+
+    public static class Builder {
+        private int games = 4096;
+        private int players = 2;
+        private long seed = 1;
+        private int moveLimit = 1000;
+
+        public Builder setGames(int games) {
+            this.games = games;
+            return this;
+        }
+
+        public Builder setPlayers(int players) {
+            this.players = players;
+            return this;
+        }
+
+        public Builder setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        // Games still running after this many moves are abandoned and reported as stalled
+        public Builder setMoveLimit(int moveLimit) {
+            this.moveLimit = moveLimit;
+            return this;
+        }
+
+        public BatchSimulator build() {
+            if (players < 2 || players > 4) {
+                throw new IllegalArgumentException("Number of players must be between 2 and 4");
+            }
+            if (games < 0 || moveLimit < 1) {
+                throw new IllegalArgumentException("Games must be >= 0 and move limit >= 1");
+            }
+            return new BatchSimulator(this);
+        }
+    }
+
+    // Usage: BatchSimulator [games] [players] [seed]
+    public static void main(String[] args) {
+        Builder builder = new Builder();
+        if (args.length > 0) {
+            builder.setGames(Integer.parseInt(args[0]));
+        }
+        if (args.length > 1) {
+            builder.setPlayers(Integer.parseInt(args[1]));
+        }
+        if (args.length > 2) {
+            builder.setSeed(Long.parseLong(args[2]));
+        }
+        System.out.print(builder.build().run());
+    }
+}
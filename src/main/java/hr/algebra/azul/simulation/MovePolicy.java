@@ -0,0 +1,15 @@
+package hr.algebra.azul.simulation;
+
+import hr.algebra.azul.model.Game;
+import java.util.SplittableRandom;
+
+// Chooses one of the current player's legal moves. moves[0..count) are packed Move codes from
+// MoveGenerator. A policy instance serves one game at a time; the runner creates one per seat per game.
+@FunctionalInterface
+public interface MovePolicy {
+    int chooseMove(Game game, int[] moves, int count, SplittableRandom random);
+
+    static MovePolicy random() {
+        return (game, moves, count, random) -> moves[random.nextInt(count)];
+    }
+}
@@ -0,0 +1,69 @@
+package hr.algebra.azul.simulation;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+// Result of a SimulationRunner batch. Stalled games hit the move limit or ran out of tiles and are
+// still included in the score statistics. allocatedBytes is -1 when the JVM cannot count thread allocations.
+public record SimulationReport(
+        int games,
+        int stalledGames,
+        long moves,
+        long elapsedNanos,
+        long allocatedBytes,
+        List<SeatStats> seats,
+        SortedMap<Integer, Long> scoreHistogram
+) {
+    public static final int HISTOGRAM_BUCKET = 10;
+
+    public SimulationReport {
+        seats = List.copyOf(seats);
+        scoreHistogram = Collections.unmodifiableSortedMap(new TreeMap<>(scoreHistogram));
+    }
+
+    // wins counts every seat sharing the top score
+    public record SeatStats(int minScore, int maxScore, double meanScore, double scoreStdDev, int wins) {
+    }
+
+    public double gamesPerSecond() {
+        return perSecond(games);
+    }
+
+    public double movesPerSecond() {
+        return perSecond(moves);
+    }
+
+    public double allocatedBytesPerSecond() {
+        return allocatedBytes < 0 ? -1 : perSecond(allocatedBytes);
+    }
+
+    public double allocatedBytesPerMove() {
+        return allocatedBytes < 0 || moves == 0 ? -1 : (double) allocatedBytes / moves;
+    }
+
+    private double perSecond(long count) {
+        return elapsedNanos == 0 ? 0 : count * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d games (%d stalled), %d moves in %.2f s%n",
+                games, stalledGames, moves, elapsedNanos / 1e9));
+        sb.append(String.format("%.0f games/s, %.0f moves/s%n", gamesPerSecond(), movesPerSecond()));
+        if (allocatedBytes >= 0) {
+            sb.append(String.format("%.1f MB/s allocated, %.0f bytes/move%n",
+                    allocatedBytesPerSecond() / (1 << 20), allocatedBytesPerMove()));
+        }
+        for (int seat = 0; seat < seats.size(); seat++) {
+            SeatStats stats = seats.get(seat);
+            sb.append(String.format("seat %d: mean %.1f sd %.1f min %d max %d wins %d%n", seat,
+                    stats.meanScore(), stats.scoreStdDev(), stats.minScore(), stats.maxScore(), stats.wins()));
+        }
+        scoreHistogram.forEach((bucket, count) ->
+                sb.append(String.format("%4d..%-4d %d%n", bucket, bucket + HISTOGRAM_BUCKET - 1, count)));
+        return sb.toString();
+    }
+}
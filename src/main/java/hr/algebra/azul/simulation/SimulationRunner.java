@@ -0,0 +1,304 @@
+package hr.algebra.azul.simulation;
+
+import hr.algebra.azul.model.Game;
+import hr.algebra.azul.model.Move;
+import hr.algebra.azul.model.MoveGenerator;
+import hr.algebra.azul.model.Player;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+// Plays complete games of Game without JavaFX, spread over a ForkJoinPool. Game i always gets the
+// same random stream, derived from the base seed and i, so a batch is reproducible whatever the
+// thread count or scheduling.
+public class SimulationRunner {
+    private static final Logger LOGGER = Logger.getLogger(SimulationRunner.class.getName());
+    private static final long SEED_STRIDE = 0x9E3779B97F4A7C15L;
+    private static final ThreadLocal<int[]> MOVE_BUFFERS = ThreadLocal.withInitial(MoveGenerator::newBuffer);
+
+    private final int games;
+    private final int players;
+    private final int parallelism;
+    private final long seed;
+    private final int moveLimit;
+    private final List<Supplier<? extends MovePolicy>> seatPolicies;
+
+    private SimulationRunner(Builder builder) {
+        this.games = builder.games;
+        this.players = builder.players;
+        this.parallelism = builder.parallelism;
+        this.seed = builder.seed;
+        this.moveLimit = builder.moveLimit;
+        this.seatPolicies = List.copyOf(builder.seatPolicies);
+    }
+
+    public SimulationReport run() {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long start = System.nanoTime();
+        try {
+            Tally tally = pool.submit(() -> IntStream.range(0, games)
+                    .parallel()
+                    .collect(() -> new Tally(players), this::playInto, Tally::merge))
+                    .get();
+            return tally.toReport(System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void playInto(Tally tally, int gameIndex) {
+        long allocatedBefore = AllocationCounter.currentThreadBytes();
+        SplittableRandom random = new SplittableRandom(seed + gameIndex * SEED_STRIDE);
+        Game game = new Game(players, random.split());
+        MovePolicy[] policies = new MovePolicy[players];
+        for (int seat = 0; seat < players; seat++) {
+            policies[seat] = seatPolicies.get(seat % seatPolicies.size()).get();
+        }
+
+        int moveCount;
+        try {
+            moveCount = playOut(game, policies, random, moveLimit);
+        } finally {
+            closeAll(policies);
+        }
+        long allocatedAfter = AllocationCounter.currentThreadBytes();
+        tally.add(game, moveCount, !game.isGameEnded(),
+                allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore);
+    }
+
+    // Policies that hold threads or other resources (MctsBot with parallelism) are AutoCloseable;
+    // whoever creates a policy per game closes it once the game is over
+    public static void closeAll(MovePolicy[] policies) {
+        for (MovePolicy policy : policies) {
+            if (policy instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    LOGGER.warning("Failed to close bot: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Starts the game and plays it with one policy per seat; returns the number of moves played.
+    // The game is left unfinished when it stalls.
+    static int playOut(Game game, MovePolicy[] policies, SplittableRandom random, int moveLimit) {
+        int[] moves = MOVE_BUFFERS.get();
+        int moveCount = 0;
+        game.startGame();
+        while (!game.isGameEnded()) {
+            int count = MoveGenerator.generate(game, moves);
+            // The bag and discard can run dry, and weak policies can cycle tiles through the floor forever
+            if (count == 0 || moveCount == moveLimit) {
+                break;
+            }
+            int move = policies[game.getCurrentPlayerIndex()].chooseMove(game, moves, count, random);
+            if (!game.applyMove(move)) {
+                throw new IllegalStateException("Policy chose an illegal move: " + Move.toString(move));
+            }
+            moveCount++;
+        }
+        return moveCount;
+    }
+
+    // Accumulates game results; one per worker, merged at the end
+    static class Tally {
+        private final int[] minScores;
+        private final int[] maxScores;
+        private final long[] scoreSums;
+        private final double[] scoreSquareSums;
+        private final int[] wins;
+        private final TreeMap<Integer, Long> histogram = new TreeMap<>();
+        private int games;
+        private int stalledGames;
+        private long moves;
+        private long allocatedBytes;
+
+        Tally(int players) {
+            minScores = new int[players];
+            maxScores = new int[players];
+            scoreSums = new long[players];
+            scoreSquareSums = new double[players];
+            wins = new int[players];
+            Arrays.fill(minScores, Integer.MAX_VALUE);
+            Arrays.fill(maxScores, Integer.MIN_VALUE);
+        }
+
+        void add(Game game, int moveCount, boolean stalled, long allocated) {
+            List<Player> players = game.getPlayers();
+            int[] seatScores = new int[players.size()];
+            for (int seat = 0; seat < seatScores.length; seat++) {
+                seatScores[seat] = players.get(seat).getScore();
+            }
+            add(seatScores, moveCount, stalled, allocated);
+        }
+
+        void add(int[] seatScores, int moveCount, boolean stalled, long allocated) {
+            games++;
+            moves += moveCount;
+            if (stalled) {
+                stalledGames++;
+            }
+            addAllocatedBytes(allocated);
+
+            int best = Integer.MIN_VALUE;
+            for (int score : seatScores) {
+                best = Math.max(best, score);
+            }
+            for (int seat = 0; seat < seatScores.length; seat++) {
+                int score = seatScores[seat];
+                minScores[seat] = Math.min(minScores[seat], score);
+                maxScores[seat] = Math.max(maxScores[seat], score);
+                scoreSums[seat] += score;
+                scoreSquareSums[seat] += (double) score * score;
+                if (score == best) {
+                    wins[seat]++;
+                }
+                histogram.merge(Math.floorDiv(score, SimulationReport.HISTOGRAM_BUCKET) * SimulationReport.HISTOGRAM_BUCKET,
+                        1L, Long::sum);
+            }
+        }
+
+        void addAllocatedBytes(long allocated) {
+            allocatedBytes = allocatedBytes < 0 || allocated < 0 ? -1 : allocatedBytes + allocated;
+        }
+
+        void merge(Tally other) {
+            for (int seat = 0; seat < wins.length; seat++) {
+                minScores[seat] = Math.min(minScores[seat], other.minScores[seat]);
+                maxScores[seat] = Math.max(maxScores[seat], other.maxScores[seat]);
+                scoreSums[seat] += other.scoreSums[seat];
+                scoreSquareSums[seat] += other.scoreSquareSums[seat];
+                wins[seat] += other.wins[seat];
+            }
+            other.histogram.forEach((bucket, count) -> histogram.merge(bucket, count, Long::sum));
+            games += other.games;
+            stalledGames += other.stalledGames;
+            moves += other.moves;
+            allocatedBytes = allocatedBytes < 0 || other.allocatedBytes < 0 ? -1 : allocatedBytes + other.allocatedBytes;
+        }
+
+        SimulationReport toReport(long elapsedNanos) {
+            List<SimulationReport.SeatStats> seats = new ArrayList<>();
+            for (int seat = 0; seat < wins.length; seat++) {
+                double mean = games == 0 ? 0 : (double) scoreSums[seat] / games;
+                double variance = games == 0 ? 0 : Math.max(0, scoreSquareSums[seat] / games - mean * mean);
+                seats.add(new SimulationReport.SeatStats(
+                        games == 0 ? 0 : minScores[seat],
+                        games == 0 ? 0 : maxScores[seat],
+                        mean,
+                        Math.sqrt(variance),
+                        wins[seat]
+                ));
+            }
+            return new SimulationReport(games, stalledGames, moves, elapsedNanos, allocatedBytes, seats, histogram);
+        }
+    }
+
+    // Per-thread allocation counter from the HotSpot management extension, when available
+    static final class AllocationCounter {
+        private static final com.sun.management.ThreadMXBean THREADS = init();
+
+        private static com.sun.management.ThreadMXBean init() {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                    && threads.isThreadAllocatedMemorySupported()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+                return threads;
+            }
+            return null;
+        }
+
+        static long currentThreadBytes() {
+            return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+        }
+    }
+
+    public static class Builder {
+        private int games = 1000;
+        private int players = 2;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private long seed = 1;
+        private int moveLimit = 1000;
+        private final List<Supplier<? extends MovePolicy>> seatPolicies = new ArrayList<>();
+
+        public Builder setGames(int games) {
+            this.games = games;
+            return this;
+        }
+
+        public Builder setPlayers(int players) {
+            this.players = players;
+            return this;
+        }
+
+        public Builder setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public Builder setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        // Games still running after this many moves are abandoned and reported as stalled
+        public Builder setMoveLimit(int moveLimit) {
+            this.moveLimit = moveLimit;
+            return this;
+        }
+
+        // Policies are assigned to seats in the order added, repeating when there are fewer than players
+        public Builder addPolicy(Supplier<? extends MovePolicy> policy) {
+            seatPolicies.add(policy);
+            return this;
+        }
+
+        public SimulationRunner build() {
+            if (players < 2 || players > 4) {
+                throw new IllegalArgumentException("Number of players must be between 2 and 4");
+            }
+            if (games < 0 || parallelism < 1 || moveLimit < 1) {
+                throw new IllegalArgumentException("Games must be >= 0, parallelism and move limit >= 1");
+            }
+            if (seatPolicies.isEmpty()) {
+                seatPolicies.add(MovePolicy::random);
+            }
+            return new SimulationRunner(this);
+        }
+    }
+
+    // Usage: SimulationRunner [games] [players] [threads] [seed]
+    public static void main(String[] args) {
+        Builder builder = new Builder();
+        if (args.length > 0) {
+            builder.setGames(Integer.parseInt(args[0]));
+        }
+        if (args.length > 1) {
+            builder.setPlayers(Integer.parseInt(args[1]));
+        }
+        if (args.length > 2) {
+            builder.setParallelism(Integer.parseInt(args[2]));
+        }
+        if (args.length > 3) {
+            builder.setSeed(Long.parseLong(args[3]));
+        }
+
+        // A short untimed batch lets the JIT settle before the measured one
+        int games = builder.games;
+        builder.setGames(Math.min(games, 500)).build().run();
+        System.out.print(builder.setGames(games).build().run());
+    }
+}
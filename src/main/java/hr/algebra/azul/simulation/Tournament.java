@@ -0,0 +1,370 @@
+package hr.algebra.azul.simulation;
+
+import hr.algebra.azul.model.Game;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+// Two-player matches between registered bots, round-robin or Swiss. Every match is played in pairs
+// of games on the same seed with the seats swapped, so neither side profits from the deal or from
+// moving first. The games of a round run in parallel on a ForkJoinPool; results only depend on the
+// seed, not on thread count. Ratings are a Bradley-Terry (Elo model) maximum likelihood fit over all
+// finished games rather than sequential Elo or Glicko updates, which would depend on the order
+// parallel games happen to finish in.
+public class Tournament {
+    private static final Logger LOGGER = Logger.getLogger(Tournament.class.getName());
+    private static final long SEED_STRIDE = 0x9E3779B97F4A7C15L;
+    private static final double ELO_PER_NAT = 400 / Math.log(10);
+    private static final double BASE_RATING = 1500;
+
+    public enum Format {
+        ROUND_ROBIN,
+        SWISS
+    }
+
+    private record Entrant(String name, Supplier<? extends MovePolicy> policy) {
+    }
+
+    // second is -1 for a bye
+    private record Pairing(int first, int second) {
+    }
+
+    private record ScheduledGame(int first, int second, long seedIndex, boolean swapped) {
+    }
+
+    private record GameResult(int first, int second, int firstScore, int secondScore, int moves, boolean stalled) {
+    }
+
+    private final List<Entrant> entrants;
+    private final Format format;
+    private final int rounds;
+    private final int gamesPerMatch;
+    private final int parallelism;
+    private final long seed;
+    private final int moveLimit;
+
+    private Tournament(Builder builder) {
+        this.entrants = List.copyOf(builder.entrants);
+        this.format = builder.format;
+        this.rounds = builder.rounds;
+        this.gamesPerMatch = builder.gamesPerMatch;
+        this.parallelism = builder.parallelism;
+        this.seed = builder.seed;
+        this.moveLimit = builder.moveLimit;
+    }
+
+    public TournamentReport run() {
+        int n = entrants.size();
+        Results results = new Results(n);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long start = System.nanoTime();
+        long nextSeedIndex = 0;
+        try {
+            for (int round = 0; round < rounds; round++) {
+                List<Pairing> pairings = format == Format.ROUND_ROBIN ? roundRobinPairings() : swissPairings(results);
+                List<ScheduledGame> games = new ArrayList<>();
+                for (Pairing pairing : pairings) {
+                    if (pairing.second() < 0) {
+                        results.points[pairing.first()] += 1;
+                        results.byes[pairing.first()]++;
+                        continue;
+                    }
+                    // Games 2k and 2k+1 of a match share a seed and swap the seats
+                    for (int g = 0; g < gamesPerMatch; g++) {
+                        games.add(new ScheduledGame(pairing.first(), pairing.second(), nextSeedIndex + g / 2, g % 2 == 1));
+                    }
+                    nextSeedIndex += gamesPerMatch / 2;
+                }
+                List<GameResult> played = pool.submit(() -> games.parallelStream().map(this::play).toList()).get();
+                results.addRound(played);
+                results.fitRatings();
+                LOGGER.fine(() -> "Tournament round finished with " + played.size() + " games");
+            }
+            return results.toReport(System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tournament interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Tournament failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private List<Pairing> roundRobinPairings() {
+        List<Pairing> pairings = new ArrayList<>();
+        for (int a = 0; a < entrants.size(); a++) {
+            for (int b = a + 1; b < entrants.size(); b++) {
+                pairings.add(new Pairing(a, b));
+            }
+        }
+        return pairings;
+    }
+
+    // Entrants are ranked by match points, then rating, and each is paired with the next one down it
+    // has not met yet. With an odd field the lowest ranked entrant among those with the fewest byes
+    // sits out for one match point.
+    private List<Pairing> swissPairings(Results results) {
+        int n = entrants.size();
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> -results.points[i])
+                .thenComparingDouble(i -> -results.ratings[i])
+                .thenComparingInt(i -> i));
+
+        boolean[] paired = new boolean[n];
+        List<Pairing> pairings = new ArrayList<>();
+        if (n % 2 == 1) {
+            int bye = order[n - 1];
+            for (int i = n - 2; i >= 0; i--) {
+                if (results.byes[order[i]] < results.byes[bye]) {
+                    bye = order[i];
+                }
+            }
+            paired[bye] = true;
+            pairings.add(new Pairing(bye, -1));
+        }
+        for (int i = 0; i < n; i++) {
+            int a = order[i];
+            if (paired[a]) {
+                continue;
+            }
+            // A rematch only when everyone left below has been met already
+            int opponent = -1;
+            for (int j = i + 1; j < n; j++) {
+                int b = order[j];
+                if (paired[b]) {
+                    continue;
+                }
+                if (opponent < 0 || !results.met[a][b]) {
+                    opponent = b;
+                }
+                if (!results.met[a][b]) {
+                    break;
+                }
+            }
+            paired[a] = true;
+            paired[opponent] = true;
+            pairings.add(new Pairing(a, opponent));
+        }
+        return pairings;
+    }
+
+    private GameResult play(ScheduledGame scheduled) {
+        boolean swapped = scheduled.swapped();
+        int seat0 = swapped ? scheduled.second() : scheduled.first();
+        int seat1 = swapped ? scheduled.first() : scheduled.second();
+        SplittableRandom random = new SplittableRandom(seed + scheduled.seedIndex() * SEED_STRIDE);
+        Game game = new Game(2, random.split());
+        MovePolicy[] policies = {entrants.get(seat0).policy().get(), entrants.get(seat1).policy().get()};
+        try {
+            int moves = SimulationRunner.playOut(game, policies, random, moveLimit);
+            int score0 = game.getPlayers().get(0).getScore();
+            int score1 = game.getPlayers().get(1).getScore();
+            return new GameResult(scheduled.first(), scheduled.second(), swapped ? score1 : score0,
+                    swapped ? score0 : score1, moves, !game.isGameEnded());
+        } finally {
+            SimulationRunner.closeAll(policies);
+        }
+    }
+
+    // Running totals over all rounds; only touched by the thread that runs the tournament
+    private class Results {
+        final int[][] games;
+        final double[][] gamePoints;
+        final boolean[][] met;
+        final int[] wins;
+        final int[] draws;
+        final int[] losses;
+        final long[] scoreSums;
+        final double[] points;
+        final int[] byes;
+        final double[] ratings;
+        final double[] deviations;
+        int totalGames;
+        int stalledGames;
+        long moves;
+
+        Results(int n) {
+            games = new int[n][n];
+            gamePoints = new double[n][n];
+            met = new boolean[n][n];
+            wins = new int[n];
+            draws = new int[n];
+            losses = new int[n];
+            scoreSums = new long[n];
+            points = new double[n];
+            byes = new int[n];
+            ratings = new double[n];
+            deviations = new double[n];
+            Arrays.fill(ratings, BASE_RATING);
+        }
+
+        void addRound(List<GameResult> played) {
+            int n = entrants.size();
+            double[][] matchPoints = new double[n][n];
+            for (GameResult result : played) {
+                int a = result.first();
+                int b = result.second();
+                totalGames++;
+                moves += result.moves();
+                met[a][b] = true;
+                met[b][a] = true;
+                if (result.stalled()) {
+                    stalledGames++;
+                    continue;
+                }
+                double outcome = Integer.compare(result.firstScore(), result.secondScore()) * 0.5 + 0.5;
+                games[a][b]++;
+                games[b][a]++;
+                gamePoints[a][b] += outcome;
+                gamePoints[b][a] += 1 - outcome;
+                matchPoints[a][b] += outcome;
+                matchPoints[b][a] += 1 - outcome;
+                scoreSums[a] += result.firstScore();
+                scoreSums[b] += result.secondScore();
+                record(a, outcome);
+                record(b, 1 - outcome);
+            }
+            for (int a = 0; a < n; a++) {
+                for (int b = a + 1; b < n; b++) {
+                    if (matchPoints[a][b] + matchPoints[b][a] > 0) {
+                        int cmp = Double.compare(matchPoints[a][b], matchPoints[b][a]);
+                        points[a] += cmp > 0 ? 1 : cmp == 0 ? 0.5 : 0;
+                        points[b] += cmp < 0 ? 1 : cmp == 0 ? 0.5 : 0;
+                    }
+                }
+            }
+        }
+
+        private void record(int entrant, double outcome) {
+            if (outcome == 1) {
+                wins[entrant]++;
+            } else if (outcome == 0) {
+                losses[entrant]++;
+            } else {
+                draws[entrant]++;
+            }
+        }
+
+        // Bradley-Terry strengths by minorization-maximization. Every entrant also gets one virtual
+        // draw against a 1500 reference so that unbeaten or winless entrants stay finite.
+        void fitRatings() {
+            int n = entrants.size();
+            double[] strength = new double[n];
+            Arrays.fill(strength, 1);
+            for (int iteration = 0; iteration < 10_000; iteration++) {
+                double change = 0;
+                for (int i = 0; i < n; i++) {
+                    double won = 0.5;
+                    double denominator = 1 / (strength[i] + 1);
+                    for (int j = 0; j < n; j++) {
+                        if (games[i][j] > 0) {
+                            won += gamePoints[i][j];
+                            denominator += games[i][j] / (strength[i] + strength[j]);
+                        }
+                    }
+                    double updated = won / denominator;
+                    change = Math.max(change, Math.abs(Math.log(updated / strength[i])));
+                    strength[i] = updated;
+                }
+                if (change < 1e-9) {
+                    break;
+                }
+            }
+
+            // Standard errors from the diagonal of the Fisher information
+            for (int i = 0; i < n; i++) {
+                double reference = strength[i] / (strength[i] + 1);
+                double information = reference * (1 - reference);
+                for (int j = 0; j < n; j++) {
+                    if (games[i][j] > 0) {
+                        double p = strength[i] / (strength[i] + strength[j]);
+                        information += games[i][j] * p * (1 - p);
+                    }
+                }
+                ratings[i] = BASE_RATING + ELO_PER_NAT * Math.log(strength[i]);
+                deviations[i] = ELO_PER_NAT / Math.sqrt(information);
+            }
+        }
+
+        TournamentReport toReport(long elapsedNanos) {
+            List<TournamentReport.Standing> standings = new ArrayList<>();
+            for (int i = 0; i < entrants.size(); i++) {
+                int finished = wins[i] + draws[i] + losses[i];
+                standings.add(new TournamentReport.Standing(entrants.get(i).name(), ratings[i], deviations[i],
+                        wins[i], draws[i], losses[i], points[i], finished == 0 ? 0 : (double) scoreSums[i] / finished));
+            }
+            standings.sort(Comparator.comparingDouble(TournamentReport.Standing::rating).reversed());
+            return new TournamentReport(format, rounds, totalGames, stalledGames, moves, elapsedNanos, standings);
+        }
+    }
+
+    public static class Builder {
+        private final List<Entrant> entrants = new ArrayList<>();
+        private Format format = Format.ROUND_ROBIN;
+        private int rounds = 1;
+        private int gamesPerMatch = 100;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private long seed = 1;
+        private int moveLimit = 1000;
+
+        // The supplier is called once per game, so bots may keep per-game state
+        public Builder addEntrant(String name, Supplier<? extends MovePolicy> policy) {
+            entrants.add(new Entrant(name, policy));
+            return this;
+        }
+
+        public Builder setFormat(Format format) {
+            this.format = format;
+            return this;
+        }
+
+        public Builder setRounds(int rounds) {
+            this.rounds = rounds;
+            return this;
+        }
+
+        // Must be even: each seed is played once from each seat
+        public Builder setGamesPerMatch(int gamesPerMatch) {
+            this.gamesPerMatch = gamesPerMatch;
+            return this;
+        }
+
+        public Builder setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public Builder setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder setMoveLimit(int moveLimit) {
+            this.moveLimit = moveLimit;
+            return this;
+        }
+
+        public Tournament build() {
+            if (entrants.size() < 2) {
+                throw new IllegalArgumentException("A tournament needs at least two entrants");
+            }
+            if (rounds < 1 || gamesPerMatch < 2 || gamesPerMatch % 2 != 0) {
+                throw new IllegalArgumentException("Rounds must be >= 1 and games per match a positive even number");
+            }
+            if (parallelism < 1 || moveLimit < 1) {
+                throw new IllegalArgumentException("Parallelism and move limit must be >= 1");
+            }
+            return new Tournament(this);
+        }
+    }
+}
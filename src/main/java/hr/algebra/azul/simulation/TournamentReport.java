@@ -0,0 +1,62 @@
+package hr.algebra.azul.simulation;
+
+import java.util.List;
+
+// Result of a Tournament. Standings are sorted by rating. Ratings are on the Elo scale, anchored at
+// 1500; a difference of 400 means 10:1 expected odds. Stalled games count towards throughput but
+// not towards ratings or points.
+public record TournamentReport(
+        Tournament.Format format,
+        int rounds,
+        int games,
+        int stalledGames,
+        long moves,
+        long elapsedNanos,
+        List<Standing> standings
+) {
+    public TournamentReport {
+        standings = List.copyOf(standings);
+    }
+
+    // deviation is the standard error of the rating; the 95% interval is rating +- 1.96 deviation.
+    // points are match points: 1 for winning a match of several games, 0.5 for drawing it.
+    public record Standing(String name, double rating, double deviation, int wins, int draws, int losses,
+                           double points, double meanScore) {
+        public double lowerBound() {
+            return rating - 1.96 * deviation;
+        }
+
+        public double upperBound() {
+            return rating + 1.96 * deviation;
+        }
+
+        public int games() {
+            return wins + draws + losses;
+        }
+    }
+
+    public double gamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    public double movesPerSecond() {
+        return elapsedNanos == 0 ? 0 : moves * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%s, %d rounds: %d games (%d stalled), %d moves in %.2f s%n",
+                format, rounds, games, stalledGames, moves, elapsedNanos / 1e9));
+        sb.append(String.format("%.0f games/s, %.0f moves/s%n", gamesPerSecond(), movesPerSecond()));
+        sb.append(String.format("%-4s %-20s %7s %17s %6s %6s %6s %7s %6s%n",
+                "#", "bot", "rating", "95% interval", "won", "drawn", "lost", "points", "score"));
+        for (int i = 0; i < standings.size(); i++) {
+            Standing s = standings.get(i);
+            sb.append(String.format("%-4d %-20s %7.0f %8.0f..%-8.0f %6d %6d %6d %7.1f %6.1f%n", i + 1,
+                    s.name(), s.rating(), s.lowerBound(), s.upperBound(), s.wins(), s.draws(), s.losses(),
+                    s.points(), s.meanScore()));
+        }
+        return sb.toString();
+    }
+}
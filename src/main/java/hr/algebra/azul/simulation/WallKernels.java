@@ -0,0 +1,120 @@
+package hr.algebra.azul.simulation;
+
+import hr.algebra.azul.model.TileColor;
+import hr.algebra.azul.model.WallMask;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Wall scoring over many walls at once, one wall per vector lane. Results match
+// WallMask.placementScore and WallMask.bonusScore (and so Wall.calculatePlacementScore and
+// Wall.calculateScore); the tail past the last full vector falls back to those. Runs of neighbours
+// are counted with lane-wise bit scans instead of WallMask's lookup table, which would need a gather.
+public final class WallKernels {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final IntVector ZERO = IntVector.zero(SPECIES);
+    private static final int ROW_BITS = 0x1F;
+    private static final int COLUMN_BITS = 0x108421;
+    private static final int COLUMN_GATHER = 0x11111;
+    private static final int[] COLOR_MASKS = new int[WallMask.SIZE];
+
+    static {
+        for (TileColor color : TileColor.values()) {
+            COLOR_MASKS[color.ordinal()] = WallMask.colorMask(color);
+        }
+    }
+
+    private WallKernels() {
+    }
+
+    // scores[i] = WallMask.placementScore(masks[i], rows[i], cols[i]) for i < length
+    public static void placementScores(int[] masks, int[] rows, int[] cols, int[] scores, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            IntVector mask = IntVector.fromArray(SPECIES, masks, i);
+            IntVector row = IntVector.fromArray(SPECIES, rows, i);
+            IntVector col = IntVector.fromArray(SPECIES, cols, i);
+            placementScore(mask, row, col).intoArray(scores, i);
+        }
+        for (; i < length; i++) {
+            scores[i] = WallMask.placementScore(masks[i], rows[i], cols[i]);
+        }
+    }
+
+    // Tiles one row on every wall: where cols[i] >= 0 the tile at (row, cols[i]) is scored into
+    // scores[i] and set in masks[i]; walls with a negative column are left alone
+    public static void placeRow(int[] masks, int[] cols, int row, int[] scores, int length) {
+        IntVector rowVector = IntVector.broadcast(SPECIES, row);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            IntVector col = IntVector.fromArray(SPECIES, cols, i);
+            VectorMask<Integer> placing = col.compare(VectorOperators.GE, 0);
+            if (!placing.anyTrue()) {
+                continue;
+            }
+            col = col.max(0);
+            IntVector mask = IntVector.fromArray(SPECIES, masks, i);
+            IntVector score = IntVector.fromArray(SPECIES, scores, i);
+            // Masked arithmetic is not intrinsified everywhere; blends are
+            score.add(ZERO.blend(placementScore(mask, rowVector, col), placing)).intoArray(scores, i);
+            IntVector bit = IntVector.broadcast(SPECIES, 1).lanewise(VectorOperators.LSHL, col.add(row * WallMask.SIZE));
+            mask.or(ZERO.blend(bit, placing)).intoArray(masks, i);
+        }
+        for (; i < length; i++) {
+            if (cols[i] >= 0) {
+                scores[i] += WallMask.placementScore(masks[i], row, cols[i]);
+                masks[i] |= WallMask.bit(row, cols[i]);
+            }
+        }
+    }
+
+    // bonuses[i] = WallMask.bonusScore(masks[i]) for i < length
+    public static void bonusScores(int[] masks, int[] bonuses, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            IntVector mask = IntVector.fromArray(SPECIES, masks, i);
+            IntVector rowStarts = mask.and(mask.lanewise(VectorOperators.LSHR, 1))
+                    .and(mask.lanewise(VectorOperators.LSHR, 2))
+                    .and(mask.lanewise(VectorOperators.LSHR, 3))
+                    .and(mask.lanewise(VectorOperators.LSHR, 4))
+                    .and(COLUMN_BITS);
+            IntVector columns = mask.and(mask.lanewise(VectorOperators.LSHR, 5))
+                    .and(mask.lanewise(VectorOperators.LSHR, 10))
+                    .and(mask.lanewise(VectorOperators.LSHR, 15))
+                    .and(mask.lanewise(VectorOperators.LSHR, 20))
+                    .and(ROW_BITS);
+            IntVector bonus = rowStarts.lanewise(VectorOperators.BIT_COUNT).mul(2)
+                    .add(columns.lanewise(VectorOperators.BIT_COUNT).mul(7));
+            for (int colorMask : COLOR_MASKS) {
+                bonus = bonus.add(ZERO.blend(10, mask.and(colorMask).compare(VectorOperators.EQ, colorMask)));
+            }
+            bonus.intoArray(bonuses, i);
+        }
+        for (; i < length; i++) {
+            bonuses[i] = WallMask.bonusScore(masks[i]);
+        }
+    }
+
+    private static IntVector placementScore(IntVector mask, IntVector row, IntVector col) {
+        IntVector rowLine = mask.lanewise(VectorOperators.LSHR, row.mul(WallMask.SIZE)).and(ROW_BITS);
+        IntVector columnLine = mask.lanewise(VectorOperators.LSHR, col).and(COLUMN_BITS)
+                .mul(COLUMN_GATHER).lanewise(VectorOperators.LSHR, 16).and(ROW_BITS);
+        return neighbourRun(rowLine, col).add(neighbourRun(columnLine, row)).add(1);
+    }
+
+    // Occupied cells directly connected to pos in a 5-bit line. In ~line, set bits are empty cells
+    // and every bit past the line is set, so the run above pos is a trailing-zero count. For the run
+    // below, bit pos-1 is shifted to the top and leading zeros counted; a run that reaches bit 0
+    // counts 32 and is capped at pos.
+    private static IntVector neighbourRun(IntVector line, IntVector pos) {
+        IntVector empty = line.not();
+        IntVector above = empty.lanewise(VectorOperators.LSHR, pos.add(1))
+                .lanewise(VectorOperators.TRAILING_ZEROS_COUNT);
+        IntVector below = empty.lanewise(VectorOperators.LSHL, pos.neg().add(31))
+                .lanewise(VectorOperators.LSHL, 1)
+                .lanewise(VectorOperators.LEADING_ZEROS_COUNT)
+                .min(pos);
+        return above.add(below);
+    }
+}
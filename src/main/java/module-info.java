@@ -2,14 +2,18 @@ module hr.algebra.azul {
     requires javafx.controls;
     requires javafx.fxml;
     requires java.logging;
+    requires jdk.management;
+    requires jdk.incubator.vector;
 
     opens hr.algebra.azul to javafx.fxml;
     opens hr.algebra.azul.controller to javafx.fxml;
     exports hr.algebra.azul;
+    exports hr.algebra.azul.ai;
     exports hr.algebra.azul.controller;
     exports hr.algebra.azul.model;
     exports hr.algebra.azul.network;
     exports hr.algebra.azul.network.lobby;
     exports hr.algebra.azul.network.server;
+    exports hr.algebra.azul.simulation;
     exports hr.algebra.azul.view;
 }
\ No newline at end of file
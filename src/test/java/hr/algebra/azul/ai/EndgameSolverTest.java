@@ -0,0 +1,100 @@
+package hr.algebra.azul.ai;
+
+import hr.algebra.azul.model.Game;
+import hr.algebra.azul.model.MoveGenerator;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+class EndgameSolverTest {
+
+    @Test
+    void testSolvesFinalRoundWithLegalMoveAndLeavesGameUntouched() {
+        Game game = new Game(2, 5L);
+        game.startGame();
+        SplittableRandom random = new SplittableRandom(5L);
+        int[] moves = MoveGenerator.newBuffer();
+        while (!game.isGameEnded() && !(EndgameSolver.canEndThisRound(game) && remainingTiles(game) <= 12)) {
+            game.applyMove(moves[random.nextInt(MoveGenerator.generate(game, moves))]);
+        }
+        assertFalse(game.isGameEnded());
+        long before = game.getZobristHash();
+
+        EndgameSolver.Solution solution = new EndgameSolver(16).solve(game, Duration.ofSeconds(30));
+        assertTrue(solution.solved());
+        assertTrue(MoveGenerator.isLegal(game, solution.move()));
+        assertTrue(solution.nodes() > 0);
+        assertEquals(before, game.getZobristHash());
+    }
+
+    @Test
+    void testValueMatchesPlainMinimaxAndSurvivesTableReuse() {
+        for (int players = 2; players <= 3; players++) {
+            for (long seed = 1; seed <= 6; seed++) {
+                Game game = finalRoundPosition(players, seed, 7, 10);
+                if (game == null) {
+                    continue;
+                }
+                int root = game.getCurrentPlayerIndex();
+                int expected = minimax(game, root);
+                String position = players + " players, seed " + seed;
+
+                // The second solve reuses the table from the first under a new generation
+                EndgameSolver solver = new EndgameSolver(12);
+                for (int run = 0; run < 2; run++) {
+                    EndgameSolver.Solution solution = solver.solve(game, Duration.ofSeconds(30));
+                    assertTrue(solution.solved());
+                    assertEquals(expected, solution.value(), position + ", run " + run);
+
+                    game.applyMove(solution.move());
+                    int chosen = minimax(game, root);
+                    game.undoMove();
+                    assertEquals(expected, chosen, "chosen move, " + position + ", run " + run);
+                }
+            }
+        }
+    }
+
+    // Random play until the round can end the game, or null when it ends first or too few tiles are left
+    private static Game finalRoundPosition(int players, long seed, int minTiles, int maxTiles) {
+        Game game = new Game(players, seed);
+        game.startGame();
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] moves = MoveGenerator.newBuffer();
+        while (!game.isGameEnded() && !(EndgameSolver.canEndThisRound(game) && remainingTiles(game) <= maxTiles)) {
+            game.applyMove(moves[random.nextInt(MoveGenerator.generate(game, moves))]);
+        }
+        return game.isGameEnded() || remainingTiles(game) < minTiles ? null : game;
+    }
+
+    // Reference search with no pruning and no table, using the solver's leaf rule and evaluation
+    private static int minimax(Game game, int root) {
+        if (game.isGameEnded() || game.lastMoveEndedRound()) {
+            return Rollouts.margin(game, root);
+        }
+        int[] moves = MoveGenerator.newBuffer();
+        int count = MoveGenerator.generate(game, moves);
+        if (count == 0) {
+            return Rollouts.margin(game, root);
+        }
+        boolean maximizing = game.getCurrentPlayerIndex() == root;
+        int best = maximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            game.applyMove(moves[i]);
+            int value = minimax(game, root);
+            game.undoMove();
+            best = maximizing ? Math.max(best, value) : Math.min(best, value);
+        }
+        return best;
+    }
+
+    private static int remainingTiles(Game game) {
+        int total = game.getCentralArea().getSize();
+        for (int i = 0; i < game.getFactories().size(); i++) {
+            total += game.getFactories().get(i).getSize();
+        }
+        return total;
+    }
+}
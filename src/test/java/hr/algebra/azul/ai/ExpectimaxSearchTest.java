@@ -0,0 +1,39 @@
+package hr.algebra.azul.ai;
+
+import hr.algebra.azul.model.Game;
+import hr.algebra.azul.model.MoveGenerator;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+class ExpectimaxSearchTest {
+
+    @Test
+    void testSearchesPastTheRoundEndThroughChanceNodes() {
+        Game game = new Game(2, 6L);
+        game.startGame();
+        int[] moves = MoveGenerator.newBuffer();
+        // Every take removes at least one tile, so the round ends within three moves
+        while (remainingTiles(game) > 3) {
+            MoveGenerator.generate(game, moves);
+            game.applyMove(moves[0]);
+        }
+        long before = game.getZobristHash();
+
+        ExpectimaxSearch.Result result = new ExpectimaxSearch(4, Duration.ofSeconds(30), 4).search(game);
+        assertEquals(4, result.depth());
+        assertTrue(result.chanceNodes() > 0);
+        assertTrue(result.outcomes() >= result.chanceNodes());
+        assertTrue(MoveGenerator.isLegal(game, result.move()));
+        assertEquals(before, game.getZobristHash());
+    }
+
+    private static int remainingTiles(Game game) {
+        int tiles = game.getCentralArea().getSize();
+        for (int i = 0; i < game.getFactories().size(); i++) {
+            tiles += game.getFactories().get(i).getSize();
+        }
+        return tiles;
+    }
+}
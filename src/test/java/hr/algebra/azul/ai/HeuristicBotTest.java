@@ -0,0 +1,23 @@
+package hr.algebra.azul.ai;
+
+import hr.algebra.azul.simulation.MovePolicy;
+import hr.algebra.azul.simulation.SimulationReport;
+import hr.algebra.azul.simulation.SimulationRunner;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeuristicBotTest {
+
+    @Test
+    void testBeatsRandomPlay() {
+        SimulationReport report = new SimulationRunner.Builder()
+                .setGames(200).setPlayers(2).setSeed(3).setParallelism(1)
+                .addPolicy(HeuristicBot::new)
+                .addPolicy(MovePolicy::random)
+                .build().run();
+
+        assertEquals(0, report.stalledGames());
+        assertTrue(report.seats().get(0).wins() >= 190);
+        assertTrue(report.seats().get(0).meanScore() > report.seats().get(1).meanScore() + 40);
+    }
+}
@@ -0,0 +1,68 @@
+package hr.algebra.azul.ai;
+
+import hr.algebra.azul.model.Game;
+import hr.algebra.azul.model.MoveGenerator;
+import hr.algebra.azul.simulation.MovePolicy;
+import hr.algebra.azul.simulation.SimulationReport;
+import hr.algebra.azul.simulation.SimulationRunner;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+class MctsBotTest {
+
+    @Test
+    void testSearchRespectsIterationBudgetAndLeavesGameUntouched() {
+        Game game = new Game(2, 17L);
+        game.startGame();
+        long before = game.getZobristHash();
+
+        try (MctsBot bot = new MctsBot(Duration.ofSeconds(10), 500, 2, 1L)) {
+            MctsBot.SearchResult result = bot.search(game);
+            assertEquals(500, result.iterations());
+            assertTrue(MoveGenerator.isLegal(game, result.move()));
+            assertEquals(before, game.getZobristHash());
+
+            bot.playTurn(game);
+            assertNotEquals(before, game.getZobristHash());
+        }
+    }
+
+    @Test
+    void testTreeIsReusedForTheSamePositionAndAfterAReply() {
+        Game game = new Game(2, 17L);
+        game.startGame();
+
+        try (MctsBot bot = new MctsBot(Duration.ofSeconds(30), 4000, 1, 2L)) {
+            MctsBot.SearchResult first = bot.search(game);
+            assertFalse(first.reusedTree());
+
+            MctsBot.SearchResult again = bot.search(game);
+            assertTrue(again.reusedTree());
+            assertEquals(first.rootVisits() + again.iterations(), again.rootVisits());
+
+            // The chosen move's subtree has seen every reply, so the position after one is in the tree
+            bot.playTurn(game);
+            int[] moves = MoveGenerator.newBuffer();
+            MoveGenerator.generate(game, moves);
+            game.applyMove(moves[0]);
+            MctsBot.SearchResult afterReply = bot.search(game);
+            assertTrue(afterReply.reusedTree());
+            assertTrue(afterReply.rootVisits() > afterReply.iterations());
+        }
+    }
+
+    @Test
+    void testBeatsRandomPlay() {
+        SimulationReport report = new SimulationRunner.Builder()
+                .setGames(20).setPlayers(2).setSeed(5).setParallelism(1)
+                .addPolicy(() -> new MctsBot(Duration.ofSeconds(10), 200, 1, 5L))
+                .addPolicy(MovePolicy::random)
+                .build().run();
+
+        assertEquals(0, report.stalledGames());
+        assertTrue(report.seats().get(0).wins() >= 18);
+        assertTrue(report.seats().get(0).meanScore() > report.seats().get(1).meanScore() + 20);
+    }
+}
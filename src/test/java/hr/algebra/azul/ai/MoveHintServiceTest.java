@@ -0,0 +1,63 @@
+package hr.algebra.azul.ai;
+
+import hr.algebra.azul.model.Game;
+import hr.algebra.azul.model.Move;
+import hr.algebra.azul.model.MoveGenerator;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+class MoveHintServiceTest {
+
+    @Test
+    void testHintIsRankedCachedAndCancelledOnPositionChange() throws Exception {
+        Game game = new Game(2, 4L);
+        game.startGame();
+
+        try (MoveHintService hints = new MoveHintService(1, Duration.ofSeconds(5), 2)) {
+            MoveHintService.Hint hint = hints.hint(game).get(10, TimeUnit.SECONDS);
+            assertEquals(MoveGenerator.generate(game, MoveGenerator.newBuffer()), hint.moves().size());
+            assertTrue(MoveGenerator.isLegal(game, hint.bestMove(game)));
+            for (int i = 1; i < hint.moves().size(); i++) {
+                assertTrue(hint.moves().get(i - 1).value() >= hint.moves().get(i).value());
+            }
+            assertTrue(hints.hint(game).isDone());
+
+            // A deep analysis of the next position is dropped as soon as the game moves on
+            try (MoveHintService slow = new MoveHintService(8, Duration.ofSeconds(60), 2)) {
+                game.applyMove(hint.bestMove(game));
+                CompletableFuture<MoveHintService.Hint> pending = slow.hint(game);
+                game.applyMove(firstMove(game));
+                slow.positionChanged(game, 0);
+                assertTrue(pending.isCancelled());
+            }
+        }
+    }
+
+    @Test
+    void testFinishedGameGetsAnEmptyHintAtOnce() {
+        Game game = new Game(2, 4L);
+        game.startGame();
+        int[] moves = MoveGenerator.newBuffer();
+        while (!game.isGameEnded()) {
+            MoveGenerator.generate(game, moves);
+            game.applyMove(moves[0]);
+        }
+
+        try (MoveHintService hints = new MoveHintService(1, Duration.ofSeconds(5), 2)) {
+            CompletableFuture<MoveHintService.Hint> hint = hints.hint(game);
+            assertTrue(hint.isDone());
+            assertTrue(hint.join().moves().isEmpty());
+            assertEquals(Move.NONE, hint.join().bestMove(game));
+        }
+    }
+
+    private static int firstMove(Game game) {
+        int[] moves = MoveGenerator.newBuffer();
+        MoveGenerator.generate(game, moves);
+        return moves[0];
+    }
+}
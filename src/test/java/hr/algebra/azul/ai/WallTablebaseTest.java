@@ -0,0 +1,67 @@
+package hr.algebra.azul.ai;
+
+import hr.algebra.azul.model.WallMask;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+class WallTablebaseTest {
+
+    @Test
+    void testMatchesExhaustiveSearchAndReopensWithoutRebuilding() throws Exception {
+        // An empty file is not a table, so open builds over it
+        Path file = Files.createTempFile("walls", ".bin");
+        try {
+            check(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void check(Path file) throws Exception {
+        WallTablebase table = WallTablebase.open(file);
+        long built = Files.getLastModifiedTime(file).toMillis();
+
+        SplittableRandom random = new SplittableRandom(3L);
+        for (int i = 0; i < 40; i++) {
+            // Dense walls, where bonuses are within a few tiles
+            int mask = random.nextInt(1 << 25) | random.nextInt(1 << 25) | random.nextInt(1 << 25);
+            int fewer = -1;
+            for (int tiles = 0; tiles <= 3; tiles++) {
+                int best = bestBonus(mask, tiles);
+                assertEquals(best, table.maxBonus(mask, tiles));
+                if (best > fewer) {
+                    assertEquals(tiles, table.minTiles(mask, best));
+                }
+                fewer = best;
+            }
+        }
+        // An empty wall needs five tiles for anything, best spent on a color
+        assertEquals(0, table.maxBonus(WallMask.EMPTY, WallTablebase.HORIZON - 1));
+        assertEquals(10, table.maxBonus(WallMask.EMPTY, WallTablebase.HORIZON));
+        assertEquals(WallTablebase.MAX_BONUS, table.maxBonus(WallMask.FULL, 0));
+        // One tile short of a row, a column and a color at once
+        assertEquals(WallTablebase.MAX_BONUS - WallTablebase.MAX_TILE_BONUS,
+                table.maxBonus(WallMask.FULL & ~WallMask.bit(0, 0), 0));
+        assertEquals(1, table.minTiles(WallMask.FULL & ~WallMask.bit(0, 0), WallTablebase.MAX_BONUS));
+        assertEquals(Integer.MAX_VALUE, table.minTiles(WallMask.EMPTY, WallTablebase.MAX_BONUS + 1));
+        assertTrue(table.minTiles(WallMask.EMPTY, WallTablebase.MAX_BONUS) > WallTablebase.HORIZON);
+
+        WallTablebase.open(file);
+        assertEquals(built, Files.getLastModifiedTime(file).toMillis());
+    }
+
+    private static int bestBonus(int mask, int tiles) {
+        int best = WallMask.bonusScore(mask);
+        if (tiles == 0) {
+            return best;
+        }
+        for (int empty = ~mask & WallMask.FULL; empty != 0; empty &= empty - 1) {
+            best = Math.max(best, bestBonus(mask | (empty & -empty), tiles - 1));
+        }
+        return best;
+    }
+}
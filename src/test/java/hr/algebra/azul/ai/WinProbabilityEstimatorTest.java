@@ -0,0 +1,54 @@
+package hr.algebra.azul.ai;
+
+import hr.algebra.azul.model.Game;
+import hr.algebra.azul.simulation.MovePolicy;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+class WinProbabilityEstimatorTest {
+
+    @Test
+    void testEstimatesOddsWithoutTouchingTheGame() {
+        Game game = new Game(3, 8L);
+        game.startGame();
+        long before = game.getZobristHash();
+
+        try (WinProbabilityEstimator estimator = new WinProbabilityEstimator(2, MovePolicy::random, 0.02, 1L)) {
+            WinProbabilityEstimator.Estimate estimate = estimator.estimate(game, Duration.ofSeconds(20));
+            assertTrue(estimate.converged());
+            assertTrue(estimate.playouts() >= 256);
+            assertEquals(0, estimate.stalledPlayouts());
+            assertEquals(1.0, estimate.winProbability()[0] + estimate.winProbability()[1]
+                    + estimate.winProbability()[2], 1e-9);
+            for (double error : estimate.winStdError()) {
+                assertTrue(error <= 0.02);
+            }
+        }
+        assertEquals(before, game.getZobristHash());
+    }
+
+    @Test
+    void testStopsAtTheDeadline() {
+        Game game = new Game(2, 9L);
+        game.startGame();
+
+        try (WinProbabilityEstimator estimator = new WinProbabilityEstimator(1, HeuristicBot::new, 1e-6, 2L)) {
+            WinProbabilityEstimator.Estimate estimate = estimator.estimate(game, Duration.ofMillis(100));
+            assertFalse(estimate.converged());
+            assertTrue(estimate.playouts() > 0);
+            assertTrue(estimate.elapsedNanos() < Duration.ofSeconds(2).toNanos());
+        }
+    }
+
+    @Test
+    void testErrorIsNotZeroForAPlayerWhoAlwaysOrNeverWins() {
+        double never = WinProbabilityEstimator.stdError(0, 256);
+        assertTrue(never > 0.005);
+        assertEquals(never, WinProbabilityEstimator.stdError(256, 256), 1e-12);
+        assertTrue(WinProbabilityEstimator.stdError(0, 4096) < never);
+        // Close to the plain binomial error once the sample is large and balanced
+        assertEquals(Math.sqrt(0.25 / 10000), WinProbabilityEstimator.stdError(5000, 10000), 1e-5);
+    }
+}
@@ -0,0 +1,59 @@
+package hr.algebra.azul.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CanonicalPositionTest {
+
+    private static int[] counts(Factory factory) {
+        int[] counts = new int[TileColor.values().length];
+        for (TileColor color : TileColor.values()) {
+            counts[color.ordinal()] = factory.getTileCount(color);
+        }
+        return counts;
+    }
+
+    @Test
+    void testFactoryOrderDoesNotChangeTheKey() {
+        Game game = new Game(3, 8L);
+        game.startGame();
+        Factory first = game.getFactories().get(0);
+        Factory last = game.getFactories().get(6);
+        int[] firstCounts = counts(first);
+        int[] lastCounts = counts(last);
+        assertFalse(java.util.Arrays.equals(firstCounts, lastCounts));
+
+        Game swapped = GameSnapshot.of(game).toGame();
+        swapped.getFactories().get(0).fillFactory(lastCounts);
+        swapped.getFactories().get(6).fillFactory(firstCounts);
+
+        assertNotEquals(game.getZobristHash(), swapped.getZobristHash());
+        assertEquals(CanonicalPosition.key(game), CanonicalPosition.key(swapped));
+        assertArrayEquals(CanonicalPosition.factoryNormalForm(game), CanonicalPosition.factoryNormalForm(swapped));
+
+        // The same take names different factory indexes in the two positions
+        TileColor color = first.getTiles().get(0).getColor();
+        int move = Move.of(0, color, Move.FLOOR);
+        int canonical = CanonicalPosition.canonicalMove(game, move);
+        assertEquals(Move.of(6, color, Move.FLOOR), CanonicalPosition.concreteMove(swapped, canonical));
+        assertEquals(move, CanonicalPosition.concreteMove(game, canonical));
+    }
+
+    @Test
+    void testIdenticalFactoriesDoNotCancelOut() {
+        Game game = new Game(2, 3L);
+        game.startGame();
+        int[] pair = counts(game.getFactories().get(0));
+        int[] otherPair = counts(game.getFactories().get(3));
+        assertFalse(java.util.Arrays.equals(pair, otherPair));
+
+        // With XOR, a pair of equal factories would contribute nothing whatever they hold
+        Game other = GameSnapshot.of(game).toGame();
+        game.getFactories().get(1).fillFactory(pair);
+        game.getFactories().get(2).fillFactory(pair);
+        other.getFactories().get(1).fillFactory(otherPair);
+        other.getFactories().get(2).fillFactory(otherPair);
+
+        assertNotEquals(CanonicalPosition.key(game), CanonicalPosition.key(other));
+    }
+}
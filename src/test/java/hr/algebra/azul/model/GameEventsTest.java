@@ -0,0 +1,72 @@
+package hr.algebra.azul.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+class GameEventsTest {
+
+    @Test
+    void testEventsDescribeAWholeGame() throws InterruptedException {
+        Game game = new Game(3, 11L);
+        game.startGame();
+        CollectingSubscriber subscriber = new CollectingSubscriber();
+        game.subscribe(subscriber);
+
+        Random random = new Random(3);
+        int[] buffer = MoveGenerator.newBuffer();
+        int moves = 0;
+        while (!game.isGameEnded()) {
+            int count = MoveGenerator.generate(game, buffer);
+            assertTrue(game.applyMove(buffer[random.nextInt(count)]));
+            moves++;
+        }
+        game.closeEvents();
+        assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+
+        List<GameEvent> events = subscriber.events;
+        assertEquals(moves, events.stream().filter(e -> e instanceof GameEvent.TilesTaken).count());
+        int wallTiles = 0;
+        for (Player player : game.getPlayers()) {
+            wallTiles += player.getWall().getTileCount();
+        }
+        assertEquals(wallTiles, events.stream().filter(e -> e instanceof GameEvent.WallTileScored).count());
+
+        GameEvent last = events.get(events.size() - 1);
+        GameEvent.GameEnded ended = assertInstanceOf(GameEvent.GameEnded.class, last);
+        for (int p = 0; p < game.getPlayers().size(); p++) {
+            assertEquals(game.getPlayers().get(p).getScore(), (int) ended.finalScores().get(p));
+        }
+    }
+
+    private static class CollectingSubscriber implements Flow.Subscriber<GameEvent> {
+        private final List<GameEvent> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(GameEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+}
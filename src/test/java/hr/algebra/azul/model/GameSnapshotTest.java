@@ -0,0 +1,80 @@
+package hr.algebra.azul.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+class GameSnapshotTest {
+
+    @Test
+    void testPackedWordsRoundTripRandomPositions() {
+        Random random = new Random(7);
+        int[] moves = MoveGenerator.newBuffer();
+        for (int seed = 0; seed < 30; seed++) {
+            Game game = new Game(2 + seed % 3, seed);
+            game.startGame();
+            int steps = random.nextInt(120);
+            for (int step = 0; step < steps && !game.isGameEnded(); step++) {
+                int count = MoveGenerator.generate(game, moves);
+                if (count == 0) {
+                    break;
+                }
+                game.applyMove(moves[random.nextInt(count)]);
+            }
+
+            GameSnapshot snapshot = GameSnapshot.of(game);
+            assertSnapshotMatches(game, snapshot);
+
+            long[] words = snapshot.toLongArray();
+            GameSnapshot restored = GameSnapshot.fromLongArray(words);
+            assertEquals(snapshot, restored);
+            assertSnapshotMatches(game, restored);
+
+            Game rebuilt = restored.toGame();
+            assertSnapshotMatches(rebuilt, restored);
+            assertEquals(game.getZobristHash(), rebuilt.getZobristHash());
+            assertEquals(snapshot, GameSnapshot.of(rebuilt));
+        }
+    }
+
+    @Test
+    void testRejectsWordsOfTheWrongLength() {
+        long[] words = GameSnapshot.of(new Game(3, 1L)).toLongArray();
+        assertThrows(IllegalArgumentException.class, () -> GameSnapshot.fromLongArray(new long[3]));
+        assertThrows(IllegalArgumentException.class,
+                () -> GameSnapshot.fromLongArray(Arrays.copyOf(words, words.length - 1)));
+    }
+
+    private static void assertSnapshotMatches(Game game, GameSnapshot snapshot) {
+        assertEquals(game.getPlayers().size(), snapshot.getPlayerCount());
+        assertEquals(game.getFactories().size(), snapshot.getFactoryCount());
+        assertEquals(game.getCurrentPlayerIndex(), snapshot.getCurrentPlayerIndex());
+        assertEquals(game.isGameEnded(), snapshot.isGameEnded());
+
+        for (TileColor color : TileColor.values()) {
+            assertEquals(game.getCentralArea().getTileCount(color), snapshot.getCenterCount(color));
+            assertEquals(game.getTileBag().getBagCount(color), snapshot.getBagCount(color));
+            assertEquals(game.getTileBag().getDiscardCount(color), snapshot.getDiscardCount(color));
+            for (int f = 0; f < game.getFactories().size(); f++) {
+                assertEquals(game.getFactories().get(f).getTileCount(color), snapshot.getFactoryTileCount(f, color));
+            }
+        }
+
+        for (int p = 0; p < game.getPlayers().size(); p++) {
+            Player player = game.getPlayers().get(p);
+            assertEquals(player.getWall().getMask(), snapshot.getWallMask(p));
+            assertEquals(player.getScore(), snapshot.getScore(p));
+            for (TileColor color : TileColor.values()) {
+                long floor = player.getNegativeLine().stream().filter(tile -> tile.getColor() == color).count();
+                assertEquals(floor, snapshot.getFloorCount(p, color));
+                assertEquals(player.getHandCount(color), snapshot.getHandCount(p, color));
+            }
+            for (int line = 0; line < 5; line++) {
+                assertEquals(player.getPatternLines().getLineColor(line), snapshot.getPatternLineColor(p, line));
+                assertEquals(player.getPatternLines().getLineCount(line), snapshot.getPatternLineCount(p, line));
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package hr.algebra.azul.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class GameUndoTest {
+
+    @Test
+    void testApplyMoveMovesTilesAndAdvancesTurn() {
+        Game game = new Game(2, 99L);
+        game.startGame();
+        Player first = game.getCurrentPlayer();
+        Factory factory = game.getFactories().get(0);
+        TileColor color = factory.getTiles().get(0).getColor();
+        int count = factory.getTileCount(color);
+
+        assertTrue(game.applyMove(Move.of(0, color, 4)));
+        assertTrue(factory.isEmpty());
+        assertEquals(4 - count, game.getCentralArea().getSize());
+        assertEquals(count, first.getPatternLines().getLineCount(4));
+        assertNotSame(first, game.getCurrentPlayer());
+    }
+
+    @Test
+    void testIllegalMoveIsRejectedWithoutChanges() {
+        Game game = new Game(2, 99L);
+        game.startGame();
+        String before = fingerprint(game);
+        assertFalse(game.applyMove(Move.of(Move.CENTER, TileColor.RED, 0)));
+        assertEquals(before, fingerprint(game));
+        assertFalse(game.canUndo());
+    }
+
+    @Test
+    void testUndoRestoresEveryPositionOfRandomGames() {
+        Random random = new Random(5);
+        int[] moves = MoveGenerator.newBuffer();
+        for (int seed = 0; seed < 20; seed++) {
+            Game game = new Game(2 + seed % 3, seed);
+            game.startGame();
+            List<String> history = new ArrayList<>();
+
+            while (!game.isGameEnded() && history.size() < 300) {
+                int count = MoveGenerator.generate(game, moves);
+                if (count == 0) {
+                    break;
+                }
+                history.add(fingerprint(game));
+                assertTrue(game.applyMove(moves[random.nextInt(count)]));
+            }
+
+            for (int i = history.size() - 1; i >= 0; i--) {
+                assertTrue(game.undoMove());
+                assertEquals(history.get(i), fingerprint(game));
+            }
+            assertFalse(game.canUndo());
+        }
+    }
+
+    // The hash is kept up to date piece by piece in Factory, CentralArea, Wall, PatternLines and
+    // Player; position caches and transposition tables rely on it matching the position exactly
+    @Test
+    void testIncrementalHashMatchesHashFromScratch() {
+        Random random = new Random(8);
+        int[] moves = MoveGenerator.newBuffer();
+        for (int seed = 0; seed < 30; seed++) {
+            Game game = new Game(2 + seed % 3, seed);
+            game.startGame();
+            assertEquals(hashFromScratch(game), game.getZobristHash());
+            for (int step = 0; step < 400 && !game.isGameEnded(); step++) {
+                int count = MoveGenerator.generate(game, moves);
+                if (count == 0) {
+                    break;
+                }
+                if (game.canUndo() && random.nextInt(4) == 0) {
+                    game.undoMove();
+                } else {
+                    game.applyMove(moves[random.nextInt(count)]);
+                    if (game.lastMoveEndedRound() && random.nextBoolean()) {
+                        List<RefillDistribution.Outcome> outcomes = RefillDistribution.of(game).outcomes(4);
+                        if (!outcomes.isEmpty()) {
+                            game.applyRefill(outcomes.get(random.nextInt(outcomes.size())));
+                        }
+                    }
+                }
+                assertEquals(hashFromScratch(game), game.getZobristHash());
+                assertEquals(GameSnapshot.of(game).toGame().getZobristHash(), game.getZobristHash());
+            }
+        }
+    }
+
+    private static long hashFromScratch(Game game) {
+        GameSnapshot position = GameSnapshot.of(game);
+        long hash = Zobrist.CURRENT_PLAYER[position.getCurrentPlayerIndex()];
+        for (TileColor color : TileColor.values()) {
+            int c = color.ordinal();
+            hash ^= Zobrist.count(Zobrist.CENTER[c], position.getCenterCount(color));
+            for (int f = 0; f < position.getFactoryCount(); f++) {
+                hash ^= Zobrist.count(Zobrist.FACTORY[f][c], position.getFactoryTileCount(f, color));
+            }
+            for (int p = 0; p < position.getPlayerCount(); p++) {
+                hash ^= Zobrist.count(Zobrist.FLOOR[p][c], position.getFloorCount(p, color))
+                        ^ Zobrist.count(Zobrist.HAND[p][c], position.getHandCount(p, color));
+            }
+        }
+        for (int p = 0; p < position.getPlayerCount(); p++) {
+            for (int cell = 0; cell < WallMask.SIZE * WallMask.SIZE; cell++) {
+                if ((position.getWallMask(p) & (1 << cell)) != 0) {
+                    hash ^= Zobrist.WALL[p][cell];
+                }
+            }
+            for (int line = 0; line < WallMask.SIZE; line++) {
+                int count = position.getPatternLineCount(p, line);
+                if (count > 0) {
+                    int color = position.getPatternLineColor(p, line).ordinal();
+                    hash ^= Zobrist.count(Zobrist.PATTERN_LINE[p][line][color], count);
+                }
+            }
+        }
+        return hash;
+    }
+
+    private static String fingerprint(Game game) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(game.getCurrentPlayer().getName()).append(game.isGameEnded());
+        game.getFactories().forEach(factory -> sb.append(factory));
+        sb.append(game.getCentralArea()).append(game.getTileBag());
+        for (Player player : game.getPlayers()) {
+            sb.append('|').append(player.getScore())
+                    .append(',').append(player.getWall().getMask())
+                    .append(',').append(player.getPatternLines().pack())
+                    .append(',').append(player.packNegativeLine());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,59 @@
+package hr.algebra.azul.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+class MoveGeneratorTest {
+
+    @Test
+    void testOpeningMovesCoverEveryFactoryColorAndLine() {
+        Game game = new Game(2, 3L);
+        game.startGame();
+        int[] buffer = MoveGenerator.newBuffer();
+        int count = MoveGenerator.generate(game, buffer);
+
+        int expected = 0;
+        for (Factory factory : game.getFactories()) {
+            for (TileColor color : TileColor.values()) {
+                if (factory.hasColor(color)) {
+                    expected += 6;
+                }
+            }
+        }
+        assertEquals(expected, count);
+    }
+
+    @Test
+    void testGeneratedMovesMatchLegalityChecks() {
+        Random random = new Random(11);
+        int[] buffer = MoveGenerator.newBuffer();
+        for (int seed = 0; seed < 30; seed++) {
+            Game game = new Game(2 + seed % 3, seed);
+            game.startGame();
+            while (!game.isGameEnded()) {
+                int count = MoveGenerator.generate(game, buffer);
+                if (count == 0) {
+                    break;
+                }
+                Set<Integer> generated = new HashSet<>();
+                for (int i = 0; i < count; i++) {
+                    assertTrue(generated.add(buffer[i]), "duplicate move");
+                    assertTrue(MoveGenerator.isLegal(game, buffer[i]));
+                }
+                for (int source = Move.CENTER; source < game.getFactories().size(); source++) {
+                    for (TileColor color : TileColor.values()) {
+                        for (int line = 0; line <= Move.FLOOR; line++) {
+                            int move = Move.of(source, color, line);
+                            assertEquals(generated.contains(move), MoveGenerator.isLegal(game, move));
+                        }
+                    }
+                }
+                assertTrue(game.applyMove(buffer[random.nextInt(count)]));
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package hr.algebra.azul.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+class MoveJournalTest {
+
+    @Test
+    void testAppendsGrowsAndRoundTripsThroughStreams() throws Exception {
+        MoveJournal journal = new MoveJournal();
+        for (int i = 0; i < 100; i++) {
+            journal.append(Move.of(i % 9, TileColor.values()[i % 5], i % 6));
+        }
+        journal.append(Move.select(Move.CENTER, TileColor.BLUE));
+        journal.append(Move.endTurn());
+        assertEquals(102, journal.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> journal.get(102));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        journal.writeTo(new DataOutputStream(bytes));
+        assertEquals(Integer.BYTES + 2 * journal.size(), bytes.size());
+        MoveJournal read = MoveJournal.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(journal.size(), read.size());
+        for (int i = 0; i < journal.size(); i++) {
+            assertEquals(journal.get(i), read.get(i));
+        }
+
+        assertEquals(Move.endTurn(), read.removeLast());
+        assertEquals(Move.select(Move.CENTER, TileColor.BLUE), read.removeLast());
+        read.clear();
+        assertTrue(read.isEmpty());
+        assertEquals(Move.NONE, read.removeLast());
+    }
+}
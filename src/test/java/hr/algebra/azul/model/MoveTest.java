@@ -0,0 +1,39 @@
+package hr.algebra.azul.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveTest {
+
+    @Test
+    void testPackingRoundTripsEveryField() {
+        for (int source = Move.CENTER; source < 15; source++) {
+            for (TileColor color : TileColor.values()) {
+                for (int line = 0; line <= Move.FLOOR; line++) {
+                    int move = Move.of(source, color, line);
+                    assertEquals(Move.KIND_MOVE, Move.kind(move));
+                    assertEquals(source, Move.source(move));
+                    assertEquals(source == Move.CENTER, Move.isFromCenter(move));
+                    assertEquals(color, Move.color(move));
+                    assertEquals(line, Move.line(move));
+                    assertEquals(line == Move.FLOOR, Move.isToFloor(move));
+                    assertEquals(move, Move.fromShort(Move.toShort(move)));
+                    assertEquals(move, Move.combine(Move.selectPart(move), Move.placePart(move)));
+                }
+            }
+        }
+        assertEquals(Move.FLOOR, Move.line(Move.of(2, TileColor.RED, -1)));
+    }
+
+    @Test
+    void testOutOfRangeFieldsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Move.of(15, TileColor.RED, 0));
+        assertThrows(IllegalArgumentException.class, () -> Move.of(16, TileColor.RED, 0));
+        assertThrows(IllegalArgumentException.class, () -> Move.of(-2, TileColor.RED, 0));
+        assertThrows(IllegalArgumentException.class, () -> Move.of(0, TileColor.values().length, 0));
+        assertThrows(IllegalArgumentException.class, () -> Move.of(0, -1, 0));
+        assertThrows(IllegalArgumentException.class, () -> Move.of(0, TileColor.RED, Move.FLOOR + 1));
+        assertThrows(IllegalArgumentException.class, () -> Move.of(0, TileColor.RED, -2));
+        assertThrows(IllegalArgumentException.class, () -> Move.select(20, TileColor.RED));
+    }
+}
@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 class PlayerTest {
 
@@ -40,6 +41,22 @@ class PlayerTest {
         assertTrue(player.getWall().canPlaceTile(TileColor.BLUE, 1));
     }
 
+    @Test
+    void testHandAndFloorViewsFollowCounts() {
+        Map<TileColor, Integer> hand = player.getHand();
+        assertTrue(player.isHandEmpty());
+        player.addTilesToHand(TileColor.RED, 3);
+        assertEquals(3, (int) hand.get(TileColor.RED));
+        assertEquals(3, player.getHandSize());
+        assertFalse(hand.containsKey(TileColor.BLUE));
+        assertThrows(UnsupportedOperationException.class, () -> hand.put(TileColor.BLUE, 1));
+
+        player.placeTilesFromHand(TileColor.RED, 0);
+        assertTrue(hand.isEmpty());
+        assertEquals(2, player.getNegativeLine().size());
+        assertEquals(TileColor.RED, player.getNegativeLine().get(1).getColor());
+    }
+
     @Test
     void testHasCompletedRow() {
         assertFalse(player.hasCompletedRow());
@@ -0,0 +1,178 @@
+package hr.algebra.azul.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class RefillDistributionTest {
+
+    @Test
+    void testSmallDistributionIsEnumeratedExactly() {
+        // Two factories from a 5-tile bag: the bag runs dry and the discard pile is poured in
+        RefillDistribution distribution = RefillDistribution.of(new int[]{2, 1, 1, 1, 0}, new int[]{1, 1, 2, 1, 0}, 2);
+        List<RefillDistribution.Outcome> outcomes = distribution.outcomes(1000);
+
+        double total = 0;
+        for (RefillDistribution.Outcome outcome : outcomes) {
+            assertEquals(outcome.probability(), outcome.weight(), 1e-15);
+            assertEquals(outcome.probability(), distribution.probability(outcome.factoryCodes()), 1e-15);
+            assertArrayEquals(new int[5], outcome.discard());
+            total += outcome.probability();
+        }
+        assertEquals(1.0, total, 1e-12);
+        assertSame(outcomes, distribution.outcomes(1000));
+        assertSame(distribution, RefillDistribution.of(new int[]{2, 1, 1, 1, 0}, new int[]{1, 1, 2, 1, 0}, 2));
+    }
+
+    @Test
+    void testProbabilitiesMatchEveryDrawOrder() {
+        // Bag runs dry in the middle of the second factory
+        assertMatchesDrawOrders(new int[]{2, 1, 1, 1, 0}, new int[]{1, 1, 2, 1, 0}, 2);
+        // Bag runs dry in the first factory, two more are filled from the discard pile
+        assertMatchesDrawOrders(new int[]{1, 1, 1, 0, 0}, new int[]{3, 3, 3, 0, 0}, 3);
+        // Bag runs dry exactly at the end of the first factory
+        assertMatchesDrawOrders(new int[]{2, 1, 1, 0, 0}, new int[]{0, 1, 2, 1, 0}, 2);
+        // Bag runs dry exactly at the end of the second factory
+        assertMatchesDrawOrders(new int[]{3, 3, 2, 0, 0}, new int[]{2, 2, 0, 0, 0}, 3);
+        // Bag runs dry on a factory boundary and the short third factory is given back
+        assertMatchesDrawOrders(new int[]{1, 2, 0, 1, 0}, new int[]{2, 1, 1, 0, 2}, 3);
+    }
+
+    @Test
+    void testForcedRefillHasProbabilityOne() {
+        // Nine red tiles in the bag and three blue in the discard fill exactly three factories
+        RefillDistribution distribution = RefillDistribution.of(new int[]{9, 0, 0, 0, 0}, new int[]{0, 3, 0, 0, 0}, 4);
+        int fourRed = 4;
+        int oneRedThreeBlue = 1 | 3 << 3;
+        assertEquals(3, distribution.getFilledFactories());
+        assertEquals(1.0, distribution.probability(new int[]{fourRed, oneRedThreeBlue, fourRed}), 1e-12);
+        assertEquals(0.0, distribution.probability(new int[]{fourRed, fourRed, fourRed}));
+        assertEquals(1, distribution.outcomes(8).size());
+    }
+
+    @Test
+    void testApplyRefillReplacesTheRandomRefillAndUndoes() {
+        Game game = new Game(2, 4L);
+        game.startGame();
+        int[] moves = MoveGenerator.newBuffer();
+        long beforeLastMove = 0;
+        while (!game.lastMoveEndedRound()) {
+            MoveGenerator.generate(game, moves);
+            beforeLastMove = game.getZobristHash();
+            game.applyMove(moves[0]);
+        }
+        int tiles = totalTiles(game);
+        assertEquals(TileBag.TILES_PER_COLOR * TileColor.values().length, tiles);
+        RefillDistribution.Outcome outcome = RefillDistribution.of(game).outcomes(4).get(0);
+
+        assertTrue(game.applyRefill(outcome));
+        assertEquals(tiles, totalTiles(game));
+        int[] factories = CanonicalPosition.factoryNormalForm(game);
+        assertArrayEquals(outcome.factoryCodes(), java.util.Arrays.copyOf(factories, outcome.factoryCodes().length));
+        for (TileColor color : TileColor.values()) {
+            assertEquals(outcome.bag()[color.ordinal()], game.getTileBag().getBagCount(color));
+            assertEquals(outcome.discard()[color.ordinal()], game.getTileBag().getDiscardCount(color));
+        }
+
+        // Outcomes can be swapped in one after another without tiles appearing or vanishing
+        for (RefillDistribution.Outcome other : RefillDistribution.of(game).outcomes(4)) {
+            assertTrue(game.applyRefill(other));
+            assertEquals(tiles, totalTiles(game));
+        }
+
+        game.undoMove();
+        assertEquals(beforeLastMove, game.getZobristHash());
+        assertFalse(game.applyRefill(outcome));
+    }
+
+    private static void assertMatchesDrawOrders(int[] bag, int[] discard, int factories) {
+        Map<List<Integer>, double[]> expected = new HashMap<>();
+        drawFactories(bag.clone(), discard.clone(), factories, new ArrayList<>(), 1.0, expected);
+
+        RefillDistribution distribution = RefillDistribution.of(bag, discard, factories);
+        List<RefillDistribution.Outcome> outcomes = distribution.outcomes(10_000);
+        assertEquals(expected.size(), outcomes.size());
+        for (RefillDistribution.Outcome outcome : outcomes) {
+            double[] found = expected.get(Arrays.stream(outcome.factoryCodes()).boxed().toList());
+            assertNotNull(found);
+            assertEquals(found[0], outcome.probability(), 1e-12);
+        }
+        expected.forEach((codes, found) -> {
+            int[] codeArray = codes.stream().mapToInt(Integer::intValue).toArray();
+            assertEquals(found[0], distribution.probability(codeArray), 1e-12);
+        });
+    }
+
+    // Replays Game.fillFactories over TileBag.draw, following every colour each draw can take with its
+    // probability. Outcomes are keyed by their factory codes in descending order.
+    private static void drawFactories(int[] bag, int[] discard, int factoriesLeft, List<Integer> codes,
+                                      double probability, Map<List<Integer>, double[]> outcomes) {
+        if (factoriesLeft == 0) {
+            List<Integer> key = new ArrayList<>(codes);
+            key.sort(Comparator.reverseOrder());
+            outcomes.computeIfAbsent(key, k -> new double[1])[0] += probability;
+            return;
+        }
+        drawTiles(bag, discard, factoriesLeft, codes, new int[5], 0, probability, outcomes);
+    }
+
+    private static void drawTiles(int[] bag, int[] discard, int factoriesLeft, List<Integer> codes, int[] factory,
+                                  int drawn, double probability, Map<List<Integer>, double[]> outcomes) {
+        if (drawn == 4) {
+            int code = 0;
+            for (int c = 0; c < 5; c++) {
+                code |= factory[c] << (c * 3);
+            }
+            codes.add(code);
+            drawFactories(bag, discard, factoriesLeft - 1, codes, probability, outcomes);
+            codes.remove(codes.size() - 1);
+            return;
+        }
+        int bagSize = Arrays.stream(bag).sum();
+        if (bagSize == 0) {
+            if (Arrays.stream(discard).sum() == 0) {
+                // A short factory goes back to the bag and filling stops
+                drawFactories(bag, discard, 0, codes, probability, outcomes);
+                return;
+            }
+            int[] poured = new int[5];
+            for (int c = 0; c < 5; c++) {
+                poured[c] = bag[c] + discard[c];
+            }
+            drawTiles(poured, new int[5], factoriesLeft, codes, factory, drawn, probability, outcomes);
+            return;
+        }
+        for (int c = 0; c < 5; c++) {
+            if (bag[c] == 0) {
+                continue;
+            }
+            double p = probability * bag[c] / bagSize;
+            bag[c]--;
+            factory[c]++;
+            drawTiles(bag, discard, factoriesLeft, codes, factory, drawn + 1, p, outcomes);
+            factory[c]--;
+            bag[c]++;
+        }
+    }
+
+    private static int totalTiles(Game game) {
+        int tiles = game.getTileBag().getBagSize() + game.getTileBag().getDiscardSize()
+                + game.getCentralArea().getSize();
+        for (Factory factory : game.getFactories()) {
+            tiles += factory.getSize();
+        }
+        for (Player player : game.getPlayers()) {
+            tiles += WallMask.tileCount(player.getWall().getMask()) + player.getNegativeLineCount();
+            for (int line = 0; line < WallMask.SIZE; line++) {
+                tiles += player.getPatternLines().getLineCount(line);
+            }
+        }
+        return tiles;
+    }
+}
@@ -0,0 +1,62 @@
+package hr.algebra.azul.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+class SnapshotDeltaTest {
+
+    @Test
+    void testDeltasReplayAndRewindAGame() throws IOException {
+        Game game = new Game(4, 21L);
+        game.startGame();
+        Random random = new Random(8);
+        int[] buffer = MoveGenerator.newBuffer();
+
+        GameSnapshot previous = GameSnapshot.of(game);
+        long version = 0;
+        int changedWords = 0;
+        while (!game.isGameEnded()) {
+            int count = MoveGenerator.generate(game, buffer);
+            game.applyMove(buffer[random.nextInt(count)]);
+            GameSnapshot current = GameSnapshot.of(game);
+
+            SnapshotDelta delta = roundTrip(SnapshotDelta.between(version, previous, version + 1, current));
+            assertEquals(current, delta.applyTo(previous));
+            assertEquals(previous, delta.revert(current));
+            changedWords += delta.getChangedWordCount();
+
+            previous = current;
+            version++;
+        }
+        // Round ends rewrite most words, ordinary moves only a few
+        assertTrue(changedWords < version * previous.toLongArray().length / 2);
+    }
+
+    @Test
+    void testDeltaRejectsTheWrongBase() {
+        Game game = new Game(2, 4L);
+        game.startGame();
+        GameSnapshot start = GameSnapshot.of(game);
+        int[] buffer = MoveGenerator.newBuffer();
+        MoveGenerator.generate(game, buffer);
+        game.applyMove(buffer[0]);
+        GameSnapshot next = GameSnapshot.of(game);
+
+        SnapshotDelta delta = SnapshotDelta.between(start, next);
+        assertThrows(IllegalArgumentException.class, () -> delta.applyTo(next));
+        assertTrue(SnapshotDelta.between(next, next).isEmpty());
+    }
+
+    private static SnapshotDelta roundTrip(SnapshotDelta delta) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        delta.writeTo(new DataOutputStream(bytes));
+        return SnapshotDelta.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
@@ -0,0 +1,44 @@
+package hr.algebra.azul.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TileBagTest {
+
+    @Test
+    void testDrawingEmptiesBagByColorCounts() {
+        TileBag bag = new TileBag(7L);
+        int[] drawn = new int[5];
+        assertEquals(100, bag.draw(drawn, 120));
+        for (TileColor color : TileColor.values()) {
+            assertEquals(TileBag.TILES_PER_COLOR, drawn[color.ordinal()]);
+            assertEquals(0, bag.getBagCount(color));
+        }
+        assertNull(bag.draw());
+    }
+
+    @Test
+    void testDrawRefillsFromDiscard() {
+        TileBag bag = new TileBag(7L);
+        bag.draw(new int[5], 100);
+        bag.discard(TileColor.RED, 3);
+        assertEquals(3, bag.getDiscardSize());
+        assertEquals(TileColor.RED, bag.draw());
+        assertEquals(0, bag.getDiscardSize());
+        assertEquals(2, bag.getBagSize());
+    }
+
+    @Test
+    void testSameSeedGivesSameFactories() {
+        Game first = new Game(3, 1234L);
+        Game second = new Game(3, 1234L);
+        first.startGame();
+        second.startGame();
+        for (int i = 0; i < first.getFactories().size(); i++) {
+            for (TileColor color : TileColor.values()) {
+                assertEquals(first.getFactories().get(i).getTileCount(color),
+                        second.getFactories().get(i).getTileCount(color));
+            }
+        }
+    }
+}
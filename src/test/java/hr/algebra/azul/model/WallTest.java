@@ -0,0 +1,112 @@
+package hr.algebra.azul.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+class WallTest {
+
+    private Wall wall;
+
+    @BeforeEach
+    void setUp() {
+        wall = new Wall();
+    }
+
+    @Test
+    void testPlaceTileUsesPatternColumn() {
+        wall.placeTile(new Tile(TileColor.RED), 1);
+        assertTrue(wall.hasTile(1, 3));
+        assertEquals(TileColor.RED, wall.getTileColor(1, 3));
+        assertFalse(wall.canPlaceTile(TileColor.RED, 1));
+        assertThrows(IllegalArgumentException.class, () -> wall.placeTile(new Tile(TileColor.RED), 1));
+    }
+
+    @Test
+    void testPlacementScoreCountsConnectedTiles() {
+        wall.placeTile(new Tile(TileColor.BLUE), 0);    // (0,0)
+        wall.placeTile(new Tile(TileColor.YELLOW), 0);  // (0,1)
+        wall.placeTile(new Tile(TileColor.WHITE), 1);   // (1,0)
+        assertEquals(3, wall.calculatePlacementScore(0, 0));
+        assertEquals(2, wall.calculatePlacementScore(0, 1));
+        assertEquals(1, wall.calculatePlacementScore(3, 3));
+    }
+
+    @Test
+    void testCompletedRowColumnAndColorScore() {
+        for (TileColor color : TileColor.values()) {
+            wall.placeTile(new Tile(color), 2);
+        }
+        assertTrue(wall.hasCompletedRow());
+        assertEquals(2, wall.calculateScore());
+
+        for (int row = 0; row < 5; row++) {
+            if (row != 2) {
+                wall.placeTile(new Tile(Wall.getWallPatternColor(row, 2)), row);
+            }
+        }
+        assertTrue(wall.isColumnComplete(2));
+        assertEquals(2 + 7, wall.calculateScore());
+
+        for (int row = 0; row < 5; row++) {
+            if (wall.canPlaceTile(TileColor.BLUE, row)) {
+                wall.placeTile(new Tile(TileColor.BLUE), row);
+            }
+        }
+        assertTrue(wall.isColorCompleted(TileColor.BLUE));
+        assertEquals(2 + 7 + 10, wall.calculateScore());
+    }
+
+    @Test
+    void testMaskQueriesMatchGridScan() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            int mask = random.nextInt(WallMask.FULL + 1);
+            for (int row = 0; row < 5; row++) {
+                for (int col = 0; col < 5; col++) {
+                    assertEquals(naivePlacementScore(mask, row, col), WallMask.placementScore(mask, row, col));
+                }
+            }
+            assertEquals(naiveBonus(mask), WallMask.bonusScore(mask));
+
+            wall.setMask(mask);
+            assertEquals(naiveBonus(mask), wall.calculateScore());
+            assertEquals(WallMask.hasCompletedRow(mask), wall.hasCompletedRow());
+        }
+    }
+
+    private static int naivePlacementScore(int mask, int row, int col) {
+        int score = 1;
+        for (int c = col - 1; c >= 0 && WallMask.hasTile(mask, row, c); c--) score++;
+        for (int c = col + 1; c < 5 && WallMask.hasTile(mask, row, c); c++) score++;
+        for (int r = row - 1; r >= 0 && WallMask.hasTile(mask, r, col); r--) score++;
+        for (int r = row + 1; r < 5 && WallMask.hasTile(mask, r, col); r++) score++;
+        return score;
+    }
+
+    private static int naiveBonus(int mask) {
+        int score = 0;
+        int[] colorCounts = new int[5];
+        for (int i = 0; i < 5; i++) {
+            int rowCount = 0;
+            int columnCount = 0;
+            for (int j = 0; j < 5; j++) {
+                if (WallMask.hasTile(mask, i, j)) {
+                    rowCount++;
+                    colorCounts[Wall.getWallPatternColor(i, j).ordinal()]++;
+                }
+                if (WallMask.hasTile(mask, j, i)) {
+                    columnCount++;
+                }
+            }
+            score += rowCount == 5 ? 2 : 0;
+            score += columnCount == 5 ? 7 : 0;
+        }
+        for (int count : colorCounts) {
+            score += count == 5 ? 10 : 0;
+        }
+        return score;
+    }
+}
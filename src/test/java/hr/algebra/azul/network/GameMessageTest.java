@@ -0,0 +1,60 @@
+package hr.algebra.azul.network;
+
+import hr.algebra.azul.model.TileColor;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+class GameMessageTest {
+
+    @Test
+    void testActionsSurviveSerializationAsMoveCodes() throws Exception {
+        GameAction[] actions = {
+                new GameAction(GameAction.ActionType.SELECT_TILES, 4, TileColor.YELLOW, -1),
+                new GameAction(GameAction.ActionType.SELECT_TILES, -1, TileColor.RED, -1),
+                new GameAction(GameAction.ActionType.PLACE_TILES, -1, TileColor.BLACK, 3),
+                new GameAction(GameAction.ActionType.END_TURN, -1, null, -1)
+        };
+        for (GameAction action : actions) {
+            GameAction received = roundTrip(new GameMessage(MessageType.MOVE, "p1", action, null)).getAction();
+            assertEquals(action.getType(), received.getType());
+            assertEquals(action.getSelectedColor(), received.getSelectedColor());
+            if (action.getType() == GameAction.ActionType.SELECT_TILES) {
+                assertEquals(action.getFactoryIndex(), received.getFactoryIndex());
+            }
+            if (action.getType() == GameAction.ActionType.PLACE_TILES) {
+                assertEquals(action.getPatternLineIndex(), received.getPatternLineIndex());
+            }
+        }
+        assertNull(roundTrip(new GameMessage(MessageType.PING, "p1", null, null)).getAction());
+    }
+
+    @Test
+    void testToStringShowsTheActionOfADeserializedMessage() throws Exception {
+        GameAction action = new GameAction(GameAction.ActionType.SELECT_TILES, 2, TileColor.BLUE, -1);
+        GameMessage received = roundTrip(new GameMessage(MessageType.MOVE, "p1", action, null));
+        assertFalse(received.toString().contains("action=null"));
+    }
+
+    @Test
+    void testOutOfRangeActionsAreRejected() {
+        GameAction badFactory = new GameAction(GameAction.ActionType.SELECT_TILES, 15, TileColor.RED, -1);
+        GameAction badLine = new GameAction(GameAction.ActionType.PLACE_TILES, -1, TileColor.RED, 9);
+        assertThrows(IllegalArgumentException.class, () -> new GameMessage(MessageType.MOVE, "p1", badFactory, null));
+        assertThrows(IllegalArgumentException.class, () -> new GameMessage(MessageType.MOVE, "p1", badLine, null));
+    }
+
+    private static GameMessage roundTrip(GameMessage message) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(message);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (GameMessage) in.readObject();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package hr.algebra.azul.network.persistence;
+
+import hr.algebra.azul.model.Game;
+import hr.algebra.azul.model.MoveGenerator;
+import hr.algebra.azul.network.GameStatePublisher;
+import hr.algebra.azul.network.persistence.GameStatePersistenceManager.SaveTrigger;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+class GameStatePersistenceManagerTest {
+
+    @Test
+    void testSavesThePublishedPositionAndSkipsUnchangedAutoSaves() throws Exception {
+        String gameId = "persistence-test-" + System.nanoTime();
+        Game game = new Game(2, 6L);
+        game.startGame();
+        GameStatePublisher publisher = GameStatePublisher.forGame(gameId);
+        publisher.publish(game);
+
+        GameStatePersistenceManager manager = new GameStatePersistenceManager(gameId, null);
+        try {
+            assertTrue(manager.saveGameState(SaveTrigger.AUTO).get(5, TimeUnit.SECONDS));
+            assertTrue(manager.saveGameState(SaveTrigger.AUTO).get(5, TimeUnit.SECONDS));
+            assertEquals(1, saves(gameId).size());
+            assertTrue(Files.readString(saves(gameId).get(0))
+                    .contains(GameStatePublisher.latest(gameId).snapshot().toString()));
+
+            int[] moves = MoveGenerator.newBuffer();
+            MoveGenerator.generate(game, moves);
+            game.applyMove(moves[0]);
+            publisher.publish(game);
+            assertTrue(manager.saveGameState(SaveTrigger.AUTO).get(5, TimeUnit.SECONDS));
+            assertEquals(2, saves(gameId).size());
+        } finally {
+            manager.cleanup();
+            GameStatePublisher.remove(gameId);
+            for (Path save : saves(gameId)) {
+                Files.delete(save);
+            }
+        }
+        assertNull(GameStatePublisher.latest(gameId));
+    }
+
+    private static List<Path> saves(String gameId) throws IOException {
+        Path dir = Paths.get("game_saves");
+        if (!Files.exists(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(gameId))
+                    .sorted(Comparator.comparing(Path::toString))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package hr.algebra.azul.simulation;
+
+import hr.algebra.azul.model.Game;
+import hr.algebra.azul.model.GameSnapshot;
+import hr.algebra.azul.model.MoveGenerator;
+import hr.algebra.azul.model.RefillDistribution;
+import hr.algebra.azul.model.TileColor;
+import hr.algebra.azul.model.WallMask;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+class BatchSimulatorTest {
+
+    @Test
+    void testGamesDoNotDependOnBatchSize() {
+        BatchSimulator small = new BatchSimulator.Builder().setGames(5).setPlayers(3).setSeed(7).build();
+        BatchSimulator large = new BatchSimulator.Builder().setGames(300).setPlayers(3).setSeed(7).build();
+        SimulationReport report = large.run();
+        small.run();
+
+        assertEquals(300, report.games());
+        assertEquals(0, report.stalledGames());
+        for (int g = 0; g < small.getGames(); g++) {
+            assertTrue(small.isGameEnded(g));
+            assertEquals(small.getMoveCount(g), large.getMoveCount(g));
+            for (int seat = 0; seat < 3; seat++) {
+                assertEquals(small.getScore(g, seat), large.getScore(g, seat));
+                assertEquals(small.getWallMask(g, seat), large.getWallMask(g, seat));
+            }
+        }
+    }
+
+    // Each batch game starts from a Game's position; after every step the Game must have a legal move
+    // that leads to the batch's position, and after a round end it takes the batch's refill, which
+    // Game.applyRefill only accepts when it was drawn from the right bag
+    @Test
+    void testPlaysByTheRulesOfGame() {
+        for (int players = 2; players <= 4; players++) {
+            BatchSimulator batch = new BatchSimulator.Builder().setGames(40).setPlayers(players).setSeed(players).build();
+            batch.reset();
+            Game[] games = new Game[batch.getGames()];
+            for (int g = 0; g < games.length; g++) {
+                games[g] = new Game(players, 100L * players + g);
+                games[g].startGame();
+                batch.load(g, GameSnapshot.of(games[g]));
+            }
+
+            int[] moves = MoveGenerator.newBuffer();
+            int[] moveCounts = new int[games.length];
+            int live;
+            do {
+                live = batch.step();
+                for (int g = 0; g < games.length; g++) {
+                    if (batch.getMoveCount(g) == moveCounts[g]) {
+                        continue;
+                    }
+                    moveCounts[g]++;
+                    Game game = games[g];
+                    int count = MoveGenerator.generate(game, moves);
+                    int played = -1;
+                    for (int i = 0; i < count && played < 0; i++) {
+                        game.applyMove(moves[i]);
+                        if (samePosition(game, batch, g, !game.lastMoveEndedRound() || game.isGameEnded())) {
+                            played = moves[i];
+                        } else {
+                            game.undoMove();
+                        }
+                    }
+                    assertTrue(played >= 0, "No legal move leads to the batch position, game " + g);
+                    if (game.lastMoveEndedRound() && !game.isGameEnded()) {
+                        assertTrue(game.applyRefill(refill(batch, g, players * 2 + 1)));
+                    }
+                    assertTrue(samePosition(game, batch, g, true), "Position differs after refill, game " + g);
+                }
+            } while (live > 0);
+
+            for (int g = 0; g < games.length; g++) {
+                assertTrue(games[g].isGameEnded());
+            }
+        }
+    }
+
+    private static RefillDistribution.Outcome refill(BatchSimulator batch, int g, int factories) {
+        int filled = 0;
+        while (filled < factories && batch.getFactoryCode(g, filled) != 0) {
+            filled++;
+        }
+        int[] codes = new int[filled];
+        for (int f = 0; f < filled; f++) {
+            codes[f] = batch.getFactoryCode(g, f);
+        }
+        int[] bag = new int[TileColor.values().length];
+        int[] discard = new int[bag.length];
+        for (int c = 0; c < bag.length; c++) {
+            bag[c] = batch.getBagCount(g, c);
+            discard[c] = batch.getDiscardCount(g, c);
+        }
+        return new RefillDistribution.Outcome(codes, bag, discard, 1, 1);
+    }
+
+    // Boards always; the table, pools and turn only when they are not waiting for a refill
+    private static boolean samePosition(Game game, BatchSimulator batch, int g, boolean whole) {
+        GameSnapshot position = GameSnapshot.of(game);
+        for (int seat = 0; seat < batch.getPlayers(); seat++) {
+            if (position.getWallMask(seat) != batch.getWallMask(g, seat)
+                    || position.getScore(seat) != batch.getScore(g, seat)
+                    || game.getPlayers().get(seat).getNegativeLineCount() != batch.getFloorCount(g, seat)) {
+                return false;
+            }
+            for (int line = 0; line < WallMask.SIZE; line++) {
+                int count = position.getPatternLineCount(seat, line);
+                if (count != batch.getPatternLineCount(g, seat, line) || (count > 0
+                        && position.getPatternLineColor(seat, line).ordinal() != batch.getPatternLineColor(g, seat, line))) {
+                    return false;
+                }
+            }
+        }
+        if (position.isGameEnded() != batch.isGameEnded(g)) {
+            return false;
+        }
+        if (!whole || position.isGameEnded()) {
+            return true;
+        }
+        if (position.getCurrentPlayerIndex() != batch.getCurrentPlayerIndex(g)) {
+            return false;
+        }
+        for (TileColor color : TileColor.values()) {
+            int c = color.ordinal();
+            if (position.getCenterCount(color) != batch.getCenterCount(g, c)
+                    || position.getBagCount(color) != batch.getBagCount(g, c)
+                    || position.getDiscardCount(color) != batch.getDiscardCount(g, c)) {
+                return false;
+            }
+        }
+        int[] factoryCodes = new int[position.getFactoryCount()];
+        for (int f = 0; f < factoryCodes.length; f++) {
+            for (TileColor color : TileColor.values()) {
+                factoryCodes[f] |= position.getFactoryTileCount(f, color) << (color.ordinal() * 3);
+            }
+            if (factoryCodes[f] != batch.getFactoryCode(g, f)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Test
+    void testKernelsMatchWallMask() {
+        SplittableRandom random = new SplittableRandom(11);
+        int length = 1000;
+        int[] masks = new int[length];
+        int[] rows = new int[length];
+        int[] cols = new int[length];
+        int[] scores = new int[length];
+        for (int i = 0; i < length; i++) {
+            masks[i] = random.nextInt(WallMask.FULL + 1) | (i % 4 == 0 ? random.nextInt(WallMask.FULL + 1) : 0);
+            rows[i] = random.nextInt(WallMask.SIZE);
+            cols[i] = i % 3 == 0 ? -1 : random.nextInt(WallMask.SIZE);
+        }
+
+        WallKernels.bonusScores(masks, scores, length);
+        for (int i = 0; i < length; i++) {
+            assertEquals(WallMask.bonusScore(masks[i]), scores[i]);
+        }
+
+        int[] placed = masks.clone();
+        int[] gained = new int[length];
+        WallKernels.placeRow(placed, cols, 2, gained, length);
+        for (int i = 0; i < length; i++) {
+            boolean placing = cols[i] >= 0;
+            assertEquals(placing ? WallMask.placementScore(masks[i], 2, cols[i]) : 0, gained[i]);
+            assertEquals(placing ? masks[i] | WallMask.bit(2, cols[i]) : masks[i], placed[i]);
+            cols[i] = Math.max(cols[i], 0);
+        }
+
+        WallKernels.placementScores(masks, rows, cols, scores, length);
+        for (int i = 0; i < length; i++) {
+            assertEquals(WallMask.placementScore(masks[i], rows[i], cols[i]), scores[i]);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package hr.algebra.azul.simulation;
+
+import hr.algebra.azul.model.Game;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SimulationRunnerTest {
+
+    @Test
+    void testBatchIsReproducibleAcrossThreadCounts() {
+        SimulationReport single = new SimulationRunner.Builder()
+                .setGames(200).setPlayers(3).setSeed(42).setParallelism(1).build().run();
+        SimulationReport parallel = new SimulationRunner.Builder()
+                .setGames(200).setPlayers(3).setSeed(42).setParallelism(4).build().run();
+
+        assertEquals(200, single.games());
+        assertEquals(single.moves(), parallel.moves());
+        assertEquals(single.seats(), parallel.seats());
+        assertEquals(single.scoreHistogram(), parallel.scoreHistogram());
+        assertEquals(600L, single.scoreHistogram().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void testClosesEveryPolicyItCreates() {
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger closed = new AtomicInteger();
+        new SimulationRunner.Builder()
+                .setGames(20).setPlayers(2).setSeed(7).setParallelism(2)
+                .addPolicy(() -> new ClosingPolicy(created, closed))
+                .build().run();
+
+        assertEquals(40, created.get());
+        assertEquals(40, closed.get());
+    }
+
+    private static final class ClosingPolicy implements MovePolicy, AutoCloseable {
+        private final AtomicInteger closed;
+
+        ClosingPolicy(AtomicInteger created, AtomicInteger closed) {
+            this.closed = closed;
+            created.incrementAndGet();
+        }
+
+        @Override
+        public int chooseMove(Game game, int[] moves, int count, SplittableRandom random) {
+            return moves[random.nextInt(count)];
+        }
+
+        @Override
+        public void close() {
+            closed.incrementAndGet();
+        }
+    }
+}
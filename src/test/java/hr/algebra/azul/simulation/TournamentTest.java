@@ -0,0 +1,49 @@
+package hr.algebra.azul.simulation;
+
+import hr.algebra.azul.model.Move;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentTest {
+
+    // Random, but never onto the floor when anything else is legal
+    private static final MovePolicy NO_FLOOR = (game, moves, count, random) -> {
+        for (int tries = 0; tries < 32; tries++) {
+            int move = moves[random.nextInt(count)];
+            if (!Move.isToFloor(move)) {
+                return move;
+            }
+        }
+        return moves[0];
+    };
+
+    private static Tournament.Builder builder(int parallelism) {
+        return new Tournament.Builder()
+                .addEntrant("random", MovePolicy::random)
+                .addEntrant("no-floor", () -> NO_FLOOR)
+                .addEntrant("random-2", MovePolicy::random)
+                .setGamesPerMatch(40).setSeed(11).setParallelism(parallelism);
+    }
+
+    @Test
+    void testRoundRobinIsReproducibleAndRanksTheStrongerBotFirst() {
+        TournamentReport single = builder(1).build().run();
+        TournamentReport parallel = builder(3).build().run();
+
+        assertEquals(120, single.games());
+        assertEquals(single.standings(), parallel.standings());
+        assertEquals("no-floor", single.standings().get(0).name());
+        assertTrue(single.standings().get(0).lowerBound() > single.standings().get(2).upperBound());
+    }
+
+    @Test
+    void testSwissGivesTheOddEntrantOutOneByeEach() {
+        TournamentReport report = builder(2).setFormat(Tournament.Format.SWISS).setRounds(3).build().run();
+
+        assertEquals(120, report.games());
+        assertEquals(0, report.stalledGames());
+        for (TournamentReport.Standing standing : report.standings()) {
+            assertEquals(80, standing.games(), standing.name());
+        }
+    }
+}